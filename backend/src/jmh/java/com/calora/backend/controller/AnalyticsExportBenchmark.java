@@ -0,0 +1,101 @@
+package com.calora.backend.controller;
+
+import com.calora.backend.model.Activity;
+import com.calora.backend.model.DailyRollup;
+import com.calora.backend.model.Meal;
+import com.calora.backend.model.User;
+import com.calora.backend.repository.ActivityRepository;
+import com.calora.backend.repository.DailyRollupRepository;
+import com.calora.backend.repository.MealRepository;
+import com.calora.backend.service.JournalArchiveService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV and PDF analytics exports over {@code rows} meals and {@code rows} activities covering the
+ * maximum export window of 24 months.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AnalyticsExportBenchmark {
+
+    private static final int MONTHS = 24;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    private AnalyticsExportController controller;
+    private User user;
+    private List<Meal> meals;
+    private List<Activity> activities;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        endDate = LocalDate.now();
+        startDate = endDate.minusMonths(MONTHS).plusDays(1);
+        int days = (int) (endDate.toEpochDay() - startDate.toEpochDay());
+
+        user = BenchmarkFixtures.user(1);
+        meals = BenchmarkFixtures.meals(user, rows, days, endDate);
+        activities = BenchmarkFixtures.activities(user, rows, days, endDate);
+        List<DailyRollup> rollups = BenchmarkFixtures.rollups(user.getId(), meals, activities);
+
+        controller = new AnalyticsExportController();
+        BenchmarkFixtures.inject(controller, "dailyRollupRepository", BenchmarkFixtures.stub(DailyRollupRepository.class, Map.of(
+                "findByUserIdAndDateBetweenOrderByDateAsc", args -> rollups)));
+        BenchmarkFixtures.inject(controller, "mealRepository", BenchmarkFixtures.stub(MealRepository.class, Map.of(
+                "streamByUserIdAndDateBetweenOrderByDateDesc", args -> meals.stream())));
+        BenchmarkFixtures.inject(controller, "activityRepository", BenchmarkFixtures.stub(ActivityRepository.class, Map.of(
+                "streamByUserIdAndDateBetweenOrderByDateDesc", args -> activities.stream())));
+        // Horizon beyond the window, so every row comes from the stubbed live repositories.
+        BenchmarkFixtures.inject(controller, "journalArchiveService", new JournalArchiveService(MONTHS + 1));
+        BenchmarkFixtures.inject(controller, "transactionManager", BenchmarkFixtures.noopTransactions());
+        BenchmarkFixtures.inject(controller, "entityManager", BenchmarkFixtures.noop(EntityManager.class));
+    }
+
+    @Benchmark
+    public long csv() throws IOException {
+        CountingWriter writer = new CountingWriter();
+        controller.writeCsvReport(writer, user, MONTHS, startDate, endDate);
+        return writer.count;
+    }
+
+    @Benchmark
+    public byte[] pdf() {
+        return controller.buildPdfReport(user, MONTHS, meals, activities, startDate, endDate);
+    }
+
+    /** Discards output but counts it, so the JIT cannot drop the writes. */
+    private static final class CountingWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void write(String value) {
+            count += value.length();
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,219 @@
+package com.calora.backend.controller;
+
+import com.calora.backend.model.*;
+import com.calora.backend.repository.ExploreCommentRepository.PostCommentRef;
+import com.calora.backend.repository.ExploreLikeRepository.PostLikeRef;
+import com.calora.backend.repository.ExploreReactionRepository.PostReactionRef;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Synthetic data and in-memory collaborators for the JMH benchmarks. Repositories are replaced by
+ * dynamic proxies that answer a fixed set of methods from prepared data, so the benchmarks measure
+ * the controller code rather than a database.
+ */
+final class BenchmarkFixtures {
+
+    static final String[] MEAL_NAMES = {
+            "Grilled Chicken Breast", "Brown Rice", "Greek Yogurt", "Oatmeal, with \"berries\"", "Salmon Fillet"
+    };
+    static final String[] MEAL_TYPES = { "Breakfast", "Lunch", "Dinner", "Snack" };
+    static final String[] ACTIVITY_TYPES = { "Running", "Cycling", "Swimming", "Yoga" };
+    static final String[] EMOJIS = { "🔥", "💪", "👏" };
+
+    private BenchmarkFixtures() {}
+
+    static User user(long id) {
+        User user = new User("bench" + id + "@calora.test", "Bench User " + id, "secret");
+        user.setId(id);
+        user.setGoal("Maintain Weight");
+        user.setDailyCalorieTarget(2400);
+        return user;
+    }
+
+    /** {@code count} meals spread evenly over the {@code days} days ending at {@code end}, newest first. */
+    static List<Meal> meals(User user, int count, int days, LocalDate end) {
+        Random random = new Random(42);
+        List<Meal> meals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Meal meal = new Meal(
+                    MEAL_NAMES[i % MEAL_NAMES.length],
+                    200 + random.nextInt(600),
+                    5 + random.nextInt(40),
+                    10 + random.nextInt(80),
+                    2 + random.nextInt(30),
+                    end.minusDays((long) i * days / count).atTime(8 + i % 12, i % 60),
+                    user);
+            meal.setId((long) i + 1);
+            meal.setMealType(MEAL_TYPES[i % MEAL_TYPES.length]);
+            meal.setQuantity(1.0);
+            meal.setUnit("serving");
+            meals.add(meal);
+        }
+        return meals;
+    }
+
+    static List<Activity> activities(User user, int count, int days, LocalDate end) {
+        Random random = new Random(7);
+        List<Activity> activities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Activity activity = new Activity(
+                    ACTIVITY_TYPES[i % ACTIVITY_TYPES.length],
+                    15 + random.nextInt(75),
+                    100 + random.nextInt(600),
+                    end.minusDays((long) i * days / count).atTime(6 + i % 14, i % 60),
+                    user);
+            activity.setId((long) i + 1);
+            activities.add(activity);
+        }
+        return activities;
+    }
+
+    /** Per-day totals for the given meals and activities, ascending by date, as the rollup table would hold them. */
+    static List<DailyRollup> rollups(Long userId, List<Meal> meals, List<Activity> activities) {
+        Map<LocalDate, DailyRollup> byDate = new TreeMap<>();
+        for (Meal meal : meals) {
+            DailyRollup rollup = byDate.computeIfAbsent(meal.getDate().toLocalDate(), date -> new DailyRollup(userId, date));
+            rollup.setCaloriesConsumed(rollup.getCaloriesConsumed() + meal.getCalories());
+            rollup.setProteinConsumed(rollup.getProteinConsumed() + meal.getProtein());
+            rollup.setCarbsConsumed(rollup.getCarbsConsumed() + meal.getCarbs());
+            rollup.setFatsConsumed(rollup.getFatsConsumed() + meal.getFats());
+            rollup.setMealCount(rollup.getMealCount() + 1);
+        }
+        for (Activity activity : activities) {
+            DailyRollup rollup = byDate.computeIfAbsent(activity.getDate().toLocalDate(), date -> new DailyRollup(userId, date));
+            rollup.setCaloriesBurned(rollup.getCaloriesBurned() + activity.getCaloriesBurned());
+            rollup.setActivityCount(rollup.getActivityCount() + 1);
+        }
+        return new ArrayList<>(byDate.values());
+    }
+
+    static List<ExplorePost> posts(int count, int authors) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ExplorePost> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ExplorePost post = new ExplorePost();
+            post.setId((long) i + 1);
+            post.setUser(user(1 + i % authors));
+            post.setType(i % 2 == 0 ? ExplorePostType.MEAL : ExplorePostType.ACTIVITY);
+            post.setTitle(i % 2 == 0 ? "Lunch bowl" : "Morning run");
+            post.setSummary("Post number " + i);
+            post.setCalories(300 + i % 500);
+            post.setDuration(i % 2 == 0 ? null : 30);
+            post.setCreatedAt(now.minusMinutes(i));
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    record LikeRef(Long postId, Long userId) implements PostLikeRef {
+        public Long getPostId() { return postId; }
+        public Long getUserId() { return userId; }
+    }
+
+    record ReactionRef(Long postId, Long userId, String emoji) implements PostReactionRef {
+        public Long getPostId() { return postId; }
+        public Long getUserId() { return userId; }
+        public String getEmoji() { return emoji; }
+    }
+
+    record CommentRef(Long id, Long postId, Long userId, String text, LocalDateTime createdAt) implements PostCommentRef {
+        public Long getId() { return id; }
+        public Long getPostId() { return postId; }
+        public Long getUserId() { return userId; }
+        public String getText() { return text; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+
+    static List<LikeRef> likes(List<ExplorePost> posts, int perPost) {
+        List<LikeRef> likes = new ArrayList<>(posts.size() * perPost);
+        for (ExplorePost post : posts) {
+            for (int i = 0; i < perPost; i++) {
+                likes.add(new LikeRef(post.getId(), (long) i + 1));
+            }
+        }
+        return likes;
+    }
+
+    static List<ReactionRef> reactions(List<ExplorePost> posts, int perPost) {
+        List<ReactionRef> reactions = new ArrayList<>(posts.size() * perPost);
+        for (ExplorePost post : posts) {
+            for (int i = 0; i < perPost; i++) {
+                reactions.add(new ReactionRef(post.getId(), (long) i + 1, EMOJIS[i % EMOJIS.length]));
+            }
+        }
+        return reactions;
+    }
+
+    static List<CommentRef> comments(List<ExplorePost> posts, int perPost) {
+        List<CommentRef> comments = new ArrayList<>(posts.size() * perPost);
+        long id = 1;
+        for (ExplorePost post : posts) {
+            for (int i = 0; i < perPost; i++) {
+                comments.add(new CommentRef(id++, post.getId(), (long) i + 1, "Nice one!", post.getCreatedAt().plusMinutes(i)));
+            }
+        }
+        return comments;
+    }
+
+    /**
+     * Builds a repository proxy that answers the named methods and fails on anything else, so a
+     * benchmark notices when the code under test starts issuing a query it was not set up for.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString": return type.getSimpleName() + " stub";
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+                default: break;
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+            }
+            return answer.apply(args);
+        });
+    }
+
+    /** A proxy whose every method does nothing, e.g. {@code EntityManager.detach}. */
+    @SuppressWarnings("unchecked")
+    static <T> T noop(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, (proxy, method, args) -> null);
+    }
+
+    static PlatformTransactionManager noopTransactions() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {}
+
+            @Override
+            public void rollback(TransactionStatus status) {}
+        };
+    }
+
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
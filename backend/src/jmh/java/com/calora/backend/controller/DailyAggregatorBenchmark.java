@@ -0,0 +1,54 @@
+package com.calora.backend.controller;
+
+import com.calora.backend.model.Activity;
+import com.calora.backend.model.Meal;
+import com.calora.backend.model.User;
+import com.calora.backend.service.DailyAggregator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link DailyAggregator} pass over {@code rows} meals and {@code rows} activities spread over
+ * a year, for the dashboard-sized windows.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class DailyAggregatorBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    @Param({ "7", "30", "90" })
+    public int window;
+
+    private LocalDate today;
+    private List<Meal> meals;
+    private List<Activity> activities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        today = LocalDate.now();
+        User user = BenchmarkFixtures.user(1);
+        meals = BenchmarkFixtures.meals(user, rows, 365, today);
+        activities = BenchmarkFixtures.activities(user, rows, 365, today);
+    }
+
+    @Benchmark
+    public DailyAggregator.Totals aggregate() {
+        DailyAggregator aggregator = DailyAggregator.endingOn(today, window);
+        for (Meal meal : meals) {
+            aggregator.addMeal(meal);
+        }
+        for (Activity activity : activities) {
+            aggregator.addActivity(activity);
+        }
+        return aggregator.totals(2400);
+    }
+}
@@ -0,0 +1,73 @@
+package com.calora.backend.controller;
+
+import com.calora.backend.model.Activity;
+import com.calora.backend.model.DailyRollup;
+import com.calora.backend.model.Meal;
+import com.calora.backend.model.User;
+import com.calora.backend.repository.ActivityRepository;
+import com.calora.backend.repository.DailyRollupRepository;
+import com.calora.backend.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DashboardController#getSummary} over a {@code days}-day trend window, for a user with a
+ * year of history (100k meals and as many activities, pre-aggregated into daily rollups).
+ *
+ * <p>Measures the controller's work on the rollup rows only: the repositories are in-memory stubs,
+ * so the rollup query and the latest-activities query cost nothing here and must be measured
+ * against a real database separately. The summary reads one rollup row per day in the window, so
+ * the size of the history does not change the result and is not a parameter.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class DashboardSummaryBenchmark {
+
+    private static final int HISTORY_ROWS = 100_000;
+
+    @Param({ "7", "30", "90" })
+    public int days;
+
+    private DashboardController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        User user = BenchmarkFixtures.user(1);
+        List<Meal> mealHistory = BenchmarkFixtures.meals(user, HISTORY_ROWS, 365, today);
+        List<Activity> activityHistory = BenchmarkFixtures.activities(user, HISTORY_ROWS, 365, today);
+        List<DailyRollup> rollups = BenchmarkFixtures.rollups(user.getId(), mealHistory, activityHistory);
+        List<Activity> latestActivities = activityHistory.stream()
+                .sorted(Comparator.comparing(Activity::getDate).reversed())
+                .limit(5)
+                .toList();
+
+        controller = new DashboardController();
+        BenchmarkFixtures.inject(controller, "userRepository", BenchmarkFixtures.stub(UserRepository.class, Map.of(
+                "findById", args -> Optional.of(user))));
+        BenchmarkFixtures.inject(controller, "dailyRollupRepository", BenchmarkFixtures.stub(DailyRollupRepository.class, Map.of(
+                "findByUserIdAndDateBetweenOrderByDateAsc", args -> rollups.stream()
+                        .filter(r -> !r.getDate().isBefore((LocalDate) args[1]) && !r.getDate().isAfter((LocalDate) args[2]))
+                        .toList(),
+                "findFirstByUserIdAndMealCountGreaterThanOrderByDateDesc", args -> rollups.isEmpty()
+                        ? Optional.empty()
+                        : Optional.of(rollups.get(rollups.size() - 1)))));
+        BenchmarkFixtures.inject(controller, "activityRepository", BenchmarkFixtures.stub(ActivityRepository.class, Map.of(
+                "findTop5ByUserIdAndDateIsNotNullOrderByDateDesc", args -> latestActivities)));
+    }
+
+    @Benchmark
+    public Object summary() {
+        return controller.getSummary(1L, days);
+    }
+}
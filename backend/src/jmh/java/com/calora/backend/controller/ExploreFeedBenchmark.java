@@ -0,0 +1,69 @@
+package com.calora.backend.controller;
+
+import com.calora.backend.controller.ExploreController.ExplorePostResponse;
+import com.calora.backend.model.ExplorePost;
+import com.calora.backend.repository.ExploreCommentRepository;
+import com.calora.backend.repository.ExploreLikeRepository;
+import com.calora.backend.repository.ExploreReactionRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ExploreFeedAssembler#assemble} for a single page and for the whole synthetic feed, with
+ * the like, reaction and comment repositories stubbed in memory, and {@code stitch} alone on
+ * already-fetched rows.
+ *
+ * <p>Neither number includes database time: the three batch lookups return prepared lists, so the
+ * benchmark covers the assembly work per request, not the queries. {@code assembleCompact} is not
+ * covered, because its counters come from JDBC in {@code ExploreInteractionService}, which cannot
+ * be stubbed the same way.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExploreFeedBenchmark {
+
+    @Param({ "20", "10000" })
+    public int posts;
+
+    @Param({ "5" })
+    public int interactionsPerPost;
+
+    private ExploreFeedAssembler assembler;
+    private List<ExplorePost> page;
+    private List<BenchmarkFixtures.LikeRef> likes;
+    private List<BenchmarkFixtures.ReactionRef> reactions;
+    private List<BenchmarkFixtures.CommentRef> comments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        assembler = new ExploreFeedAssembler();
+        page = BenchmarkFixtures.posts(posts, 200);
+        likes = BenchmarkFixtures.likes(page, interactionsPerPost);
+        reactions = BenchmarkFixtures.reactions(page, interactionsPerPost);
+        comments = BenchmarkFixtures.comments(page, interactionsPerPost);
+
+        BenchmarkFixtures.inject(assembler, "likeRepository", BenchmarkFixtures.stub(ExploreLikeRepository.class, Map.of(
+                "findRefsByPostIdIn", args -> likes)));
+        BenchmarkFixtures.inject(assembler, "reactionRepository", BenchmarkFixtures.stub(ExploreReactionRepository.class, Map.of(
+                "findRefsByPostIdIn", args -> reactions)));
+        BenchmarkFixtures.inject(assembler, "commentRepository", BenchmarkFixtures.stub(ExploreCommentRepository.class, Map.of(
+                "findRefsByPostIdIn", args -> comments)));
+    }
+
+    @Benchmark
+    public List<ExplorePostResponse> assemble() {
+        return assembler.assemble(page);
+    }
+
+    @Benchmark
+    public List<ExplorePostResponse> stitch() {
+        return assembler.stitch(page, likes, reactions, comments);
+    }
+}
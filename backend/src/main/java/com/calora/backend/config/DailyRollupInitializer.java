@@ -0,0 +1,18 @@
+package com.calora.backend.config;
+
+import com.calora.backend.service.DailyRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DailyRollupInitializer implements CommandLineRunner {
+
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Override
+    public void run(String... args) {
+        dailyRollupService.backfillIfEmpty();
+    }
+}
@@ -3,6 +3,7 @@ package com.calora.backend.config;
 import com.calora.backend.model.FoodItem;
 import com.calora.backend.model.FoodItemType;
 import com.calora.backend.repository.FoodItemRepository;
+import com.calora.backend.service.FoodCatalogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -15,6 +16,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private FoodItemRepository foodItemRepository;
 
+    @Autowired
+    private FoodCatalogService foodCatalogService;
+
     @Override
     public void run(String... args) throws Exception {
         if (foodItemRepository.countByType(FoodItemType.FOOD) == 0) {
@@ -23,6 +27,7 @@ public class DataInitializer implements CommandLineRunner {
         if (foodItemRepository.countByType(FoodItemType.FAMOUS_RECIPE) == 0) {
             foodItemRepository.saveAll(seedRecipes());
         }
+        foodCatalogService.invalidate();
     }
 
     private List<FoodItem> seedFoods() {
@@ -2,6 +2,10 @@ package com.calora.backend.config;
 
 import com.calora.backend.model.*;
 import com.calora.backend.repository.*;
+import com.calora.backend.service.ExploreInteractionService;
+import com.calora.backend.service.ExploreThreadService;
+import com.calora.backend.service.HomeTimelineService;
+import com.calora.backend.service.SocialStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -33,6 +37,18 @@ public class ExploreDataInitializer implements CommandLineRunner {
     @Autowired
     private ExploreMessageRepository messageRepository;
 
+    @Autowired
+    private SocialStatsService socialStatsService;
+
+    @Autowired
+    private ExploreThreadService threadService;
+
+    @Autowired
+    private HomeTimelineService homeTimelineService;
+
+    @Autowired
+    private ExploreInteractionService interactionService;
+
     @Override
     public void run(String... args) {
         Map<String, User> users = seedUsers();
@@ -42,17 +58,29 @@ public class ExploreDataInitializer implements CommandLineRunner {
 
         List<Long> userIds = users.values().stream().map(User::getId).toList();
 
+        boolean seededSocial = false;
         if (postRepository.countByUserIdIn(userIds) == 0) {
             seedPosts(users);
+            seededSocial = true;
         }
 
         if (followRepository.countByFollowerIdIn(userIds) == 0) {
             seedFollows(users);
+            seededSocial = true;
+        }
+
+        if (seededSocial) {
+            socialStatsService.rebuild(userIds);
+            homeTimelineService.rebuild(userIds);
+            interactionService.rebuildCounters(userIds);
         }
 
         if (messageRepository.count() == 0) {
             seedMessages(users);
         }
+
+        threadService.backfillIfEmpty();
+        homeTimelineService.backfillIfEmpty();
     }
 
     private Map<String, User> seedUsers() {
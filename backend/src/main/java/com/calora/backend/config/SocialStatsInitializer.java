@@ -0,0 +1,18 @@
+package com.calora.backend.config;
+
+import com.calora.backend.service.SocialStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SocialStatsInitializer implements CommandLineRunner {
+
+    @Autowired
+    private SocialStatsService socialStatsService;
+
+    @Override
+    public void run(String... args) {
+        socialStatsService.backfillMissing();
+    }
+}
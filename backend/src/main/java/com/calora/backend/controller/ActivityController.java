@@ -1,15 +1,21 @@
 package com.calora.backend.controller;
 
 import com.calora.backend.model.Activity;
+import com.calora.backend.model.ActivityView;
 import com.calora.backend.model.User;
 import com.calora.backend.repository.ActivityRepository;
 import com.calora.backend.repository.UserRepository;
+import com.calora.backend.service.DailyRollupService;
+import com.calora.backend.service.IdempotencyService;
+import com.calora.backend.service.JournalBatchWriter;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,18 +29,27 @@ public class ActivityController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private JournalBatchWriter journalBatchWriter;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @GetMapping
-    public List<Activity> getAllActivities() {
-        return activityRepository.findAll();
+    public List<ActivityView> getAllActivities() {
+        return activityRepository.findAllViews();
     }
 
     @GetMapping("/user/{userId}")
-    public List<Activity> getUserActivities(@PathVariable Long userId) {
-        return activityRepository.findByUserId(userId);
+    public List<ActivityView> getUserActivities(@PathVariable Long userId) {
+        return activityRepository.findViewsByUserId(userId);
     }
 
     @GetMapping("/user/{userId}/range")
-    public List<Activity> getUserActivitiesInRange(
+    public List<ActivityView> getUserActivitiesInRange(
             @PathVariable Long userId,
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to) {
@@ -43,11 +58,18 @@ public class ActivityController {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay().minusNanos(1);
 
-        return activityRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, startDateTime, endDateTime);
+        return activityRepository.findViewsByUserIdAndDateBetween(userId, startDateTime, endDateTime);
     }
 
     @PostMapping
-    public ResponseEntity<?> createActivity(@RequestBody Activity activity) {
+    @Transactional
+    public ResponseEntity<?> createActivity(@RequestBody Activity activity,
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("activities", activity.getUser() != null ? activity.getUser().getId() : null, activity,
+                idempotencyKey, () -> saveActivity(activity));
+    }
+
+    private ResponseEntity<?> saveActivity(Activity activity) {
         if (activity.getUser() == null || activity.getUser().getId() == null) {
             return ResponseEntity.badRequest().body("User id is required");
         }
@@ -58,15 +80,74 @@ public class ActivityController {
         }
 
         activity.setUser(userOpt.get());
-        if (activity.getDate() == null) {
-            activity.setDate(LocalDateTime.now());
-        }
+        applyDefaults(activity);
 
         Activity saved = activityRepository.save(activity);
-        return ResponseEntity.ok(saved);
+        dailyRollupService.recordActivity(saved);
+        return ResponseEntity.ok(ActivityView.of(saved));
+    }
+
+    /**
+     * Logs several activities for one user in a single request, e.g. entries queued by a client
+     * while offline. The user is looked up once, valid items are inserted as one JDBC batch and the
+     * response reports the new id or the rejection reason for every item.
+     */
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<?> createActivities(@RequestBody ActivityBatchRequest request,
+                                              @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("activities/batch", request != null ? request.userId() : null, request,
+                idempotencyKey, () -> saveActivities(request));
+    }
+
+    private ResponseEntity<?> saveActivities(ActivityBatchRequest request) {
+        if (request == null || request.userId() == null) {
+            return ResponseEntity.badRequest().body("User id is required");
+        }
+        if (request.items() == null || request.items().isEmpty()) {
+            return ResponseEntity.badRequest().body("At least one item is required");
+        }
+        if (request.items().size() > BatchLogResponse.MAX_ITEMS) {
+            return ResponseEntity.badRequest().body("At most " + BatchLogResponse.MAX_ITEMS + " items per batch");
+        }
+
+        Optional<User> userOpt = userRepository.findById(request.userId());
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body("User not found");
+        }
+        User user = userOpt.get();
+
+        BatchLogResponse.Item[] results = new BatchLogResponse.Item[request.items().size()];
+        List<Activity> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            Activity activity = request.items().get(i);
+            if (activity == null) {
+                results[i] = BatchLogResponse.Item.rejected(i, "Item is empty");
+                continue;
+            }
+            if (activity.getUser() != null && activity.getUser().getId() != null && !user.getId().equals(activity.getUser().getId())) {
+                results[i] = BatchLogResponse.Item.rejected(i, "Item belongs to another user");
+                continue;
+            }
+            activity.setId(null);
+            activity.setUser(user);
+            applyDefaults(activity);
+            accepted.add(activity);
+            acceptedIndexes.add(i);
+        }
+
+        journalBatchWriter.insertActivities(accepted);
+        dailyRollupService.recordActivities(accepted);
+        for (int k = 0; k < accepted.size(); k++) {
+            int index = acceptedIndexes.get(k);
+            results[index] = BatchLogResponse.Item.created(index, accepted.get(k).getId());
+        }
+        return ResponseEntity.ok(BatchLogResponse.of(results));
     }
 
     @DeleteMapping("/{activityId}")
+    @Transactional
     public ResponseEntity<?> deleteActivity(@PathVariable Long activityId, @RequestParam(required = false) Long userId) {
         Optional<Activity> activityOpt = activityRepository.findById(activityId);
         if (activityOpt.isEmpty()) {
@@ -78,7 +159,16 @@ public class ActivityController {
             return ResponseEntity.status(403).body("Not allowed to delete this activity");
         }
 
-        activityRepository.deleteById(activityId);
+        activityRepository.delete(activity);
+        dailyRollupService.removeActivity(activity);
         return ResponseEntity.ok().build();
     }
+
+    private void applyDefaults(Activity activity) {
+        if (activity.getDate() == null) {
+            activity.setDate(LocalDateTime.now());
+        }
+    }
+
+    public record ActivityBatchRequest(Long userId, List<Activity> items) {}
 }
@@ -16,28 +16,42 @@ import com.calora.backend.model.Activity;
 import com.calora.backend.model.Meal;
 import com.calora.backend.model.User;
 import com.calora.backend.repository.ActivityRepository;
+import com.calora.backend.repository.DailyRollupRepository;
 import com.calora.backend.repository.MealRepository;
 import com.calora.backend.repository.UserRepository;
+import com.calora.backend.service.DailyAggregator;
+import com.calora.backend.service.JournalArchiveService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.awt.Color;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/exports")
@@ -52,6 +66,18 @@ public class AnalyticsExportController {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private JournalArchiveService journalArchiveService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @GetMapping("/analytics/{userId}")
     public ResponseEntity<?> exportAnalytics(
             @PathVariable Long userId,
@@ -72,15 +98,18 @@ public class AnalyticsExportController {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay().minusNanos(1);
 
-        List<Meal> meals = mealRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, startDateTime, endDateTime);
-        List<Activity> activities = activityRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, startDateTime, endDateTime);
-
         String safeName = (user.getName() != null && !user.getName().isBlank()) ? user.getName().trim() : "user-" + userId;
         safeName = safeName.replaceAll("[^a-zA-Z0-9-_]", "_");
         String baseFileName = "analytics_" + safeName + "_" + LocalDate.now();
 
         String normalizedFormat = format.toLowerCase().trim();
         if ("pdf".equals(normalizedFormat)) {
+            List<Meal> meals = new ArrayList<>(mealRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, startDateTime, endDateTime));
+            List<Activity> activities = new ArrayList<>(activityRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, startDateTime, endDateTime));
+            if (journalArchiveService.reachesArchive(startDate)) {
+                meals.addAll(journalArchiveService.findArchivedMeals(userId, startDateTime, endDateTime));
+                activities.addAll(journalArchiveService.findArchivedActivities(userId, startDateTime, endDateTime));
+            }
             byte[] pdfBytes = buildPdfReport(user, months, meals, activities, startDate, endDate);
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + baseFileName + ".pdf\"")
@@ -88,78 +117,146 @@ public class AnalyticsExportController {
                     .body(pdfBytes);
         }
 
-        String csv = buildCsvReport(user, months, meals, activities, startDate, endDate);
+        int reportMonths = months;
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writeCsvReport(writer, user, reportMonths, startDate, endDate);
+            writer.flush();
+        };
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + baseFileName + ".csv\"")
                 .contentType(MediaType.TEXT_PLAIN)
-                .body(csv.getBytes(StandardCharsets.UTF_8));
+                .body(body);
+    }
+
+    /**
+     * Writes the CSV report straight to the response. Totals come from the daily rollups and the
+     * meal/activity rows are read through a forward-only cursor, so memory use does not depend on
+     * how much history the user has. Ranges that reach past the archive horizon continue with the
+     * archived rows, which are all older than the live ones, so each section stays newest first.
+     */
+    void writeCsvReport(Writer writer,
+                        User user,
+                        int months,
+                        LocalDate startDate,
+                        LocalDate endDate) throws IOException {
+        Long userId = user.getId();
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay().minusNanos(1);
+
+        DailyAggregator window = DailyAggregator.between(startDate, endDate);
+        dailyRollupRepository.findByUserIdAndDateBetweenOrderByDateAsc(userId, startDate, endDate)
+                .forEach(window::addRollup);
+        DailyAggregator.Totals totals = window.totals();
+        boolean includeArchive = journalArchiveService.reachesArchive(startDate);
+
+        writer.write("Report Type,Advanced Analytics\n");
+        writer.write("User," + csvEscape(user.getName()) + "\n");
+        writer.write("Period Months," + months + "\n");
+        writer.write("Date Range," + startDate + " to " + endDate + "\n");
+        writer.write("\n");
+        writer.write("Metric,Value\n");
+        writer.write("Meals Logged," + totals.meals() + "\n");
+        writer.write("Activities Logged," + totals.activities() + "\n");
+        writer.write("Total Calories Consumed," + totals.consumed() + "\n");
+        writer.write("Total Calories Burned," + totals.burned() + "\n");
+        writer.write("Total Protein (g)," + totals.protein() + "\n");
+        writer.write("Total Carbs (g)," + totals.carbs() + "\n");
+        writer.write("Total Fats (g)," + totals.fats() + "\n");
+        writer.write("\n");
+        writer.write("Meals\n");
+        writer.write("Date,Name,Calories,Protein,Carbs,Fats,Meal Type,Quantity,Unit\n");
+        readOnlyTransaction().executeWithoutResult(status -> {
+            try (Stream<Meal> meals = mealRepository.streamByUserIdAndDateBetweenOrderByDateDesc(userId, startDateTime, endDateTime)) {
+                meals.forEach(meal -> {
+                    writeMealRow(writer, meal);
+                    entityManager.detach(meal);
+                });
+            }
+            if (includeArchive) {
+                journalArchiveService.forEachArchivedMeal(userId, startDateTime, endDateTime, meal -> writeMealRow(writer, meal));
+            }
+        });
+        writer.write("\n");
+        writer.write("Activities\n");
+        writer.write("Date,Type,Duration (min),Calories Burned\n");
+        readOnlyTransaction().executeWithoutResult(status -> {
+            try (Stream<Activity> activities = activityRepository.streamByUserIdAndDateBetweenOrderByDateDesc(userId, startDateTime, endDateTime)) {
+                activities.forEach(activity -> {
+                    writeActivityRow(writer, activity);
+                    entityManager.detach(activity);
+                });
+            }
+            if (includeArchive) {
+                journalArchiveService.forEachArchivedActivity(userId, startDateTime, endDateTime, activity -> writeActivityRow(writer, activity));
+            }
+        });
+    }
+
+    private void writeMealRow(Writer writer, Meal meal) {
+        try {
+            writer.write(csvEscape(meal.getDate() != null ? meal.getDate().toString() : ""));
+            writer.write(",");
+            writer.write(csvEscape(meal.getName()));
+            writer.write(",");
+            writer.write(String.valueOf(meal.getCalories() != null ? meal.getCalories() : 0));
+            writer.write(",");
+            writer.write(String.valueOf(meal.getProtein() != null ? meal.getProtein() : 0));
+            writer.write(",");
+            writer.write(String.valueOf(meal.getCarbs() != null ? meal.getCarbs() : 0));
+            writer.write(",");
+            writer.write(String.valueOf(meal.getFats() != null ? meal.getFats() : 0));
+            writer.write(",");
+            writer.write(csvEscape(meal.getMealType()));
+            writer.write(",");
+            writer.write(String.valueOf(meal.getQuantity() != null ? meal.getQuantity() : 1));
+            writer.write(",");
+            writer.write(csvEscape(meal.getUnit()));
+            writer.write("\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeActivityRow(Writer writer, Activity activity) {
+        try {
+            writer.write(csvEscape(activity.getDate() != null ? activity.getDate().toString() : ""));
+            writer.write(",");
+            writer.write(csvEscape(activity.getType()));
+            writer.write(",");
+            writer.write(String.valueOf(activity.getDuration() != null ? activity.getDuration() : 0));
+            writer.write(",");
+            writer.write(String.valueOf(activity.getCaloriesBurned() != null ? activity.getCaloriesBurned() : 0));
+            writer.write("\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private String buildCsvReport(User user,
-                                  int months,
-                                  List<Meal> meals,
-                                  List<Activity> activities,
-                                  LocalDate startDate,
-                                  LocalDate endDate) {
-        int totalMealCalories = meals.stream().mapToInt(m -> m.getCalories() != null ? m.getCalories() : 0).sum();
-        int totalProtein = meals.stream().mapToInt(m -> m.getProtein() != null ? m.getProtein() : 0).sum();
-        int totalCarbs = meals.stream().mapToInt(m -> m.getCarbs() != null ? m.getCarbs() : 0).sum();
-        int totalFats = meals.stream().mapToInt(m -> m.getFats() != null ? m.getFats() : 0).sum();
-        int totalBurned = activities.stream().mapToInt(a -> a.getCaloriesBurned() != null ? a.getCaloriesBurned() : 0).sum();
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("Report Type,Advanced Analytics\n");
-        sb.append("User,").append(csvEscape(user.getName())).append("\n");
-        sb.append("Period Months,").append(months).append("\n");
-        sb.append("Date Range,").append(startDate).append(" to ").append(endDate).append("\n");
-        sb.append("\n");
-        sb.append("Metric,Value\n");
-        sb.append("Meals Logged,").append(meals.size()).append("\n");
-        sb.append("Activities Logged,").append(activities.size()).append("\n");
-        sb.append("Total Calories Consumed,").append(totalMealCalories).append("\n");
-        sb.append("Total Calories Burned,").append(totalBurned).append("\n");
-        sb.append("Total Protein (g),").append(totalProtein).append("\n");
-        sb.append("Total Carbs (g),").append(totalCarbs).append("\n");
-        sb.append("Total Fats (g),").append(totalFats).append("\n");
-        sb.append("\n");
-        sb.append("Recent Meals\n");
-        sb.append("Date,Name,Calories,Protein,Carbs,Fats,Meal Type,Quantity,Unit\n");
-        meals.stream().limit(100).forEach(meal -> sb
-                .append(csvEscape(meal.getDate() != null ? meal.getDate().toString() : ""))
-                .append(",").append(csvEscape(meal.getName()))
-                .append(",").append(meal.getCalories() != null ? meal.getCalories() : 0)
-                .append(",").append(meal.getProtein() != null ? meal.getProtein() : 0)
-                .append(",").append(meal.getCarbs() != null ? meal.getCarbs() : 0)
-                .append(",").append(meal.getFats() != null ? meal.getFats() : 0)
-                .append(",").append(csvEscape(meal.getMealType()))
-                .append(",").append(meal.getQuantity() != null ? meal.getQuantity() : 1)
-                .append(",").append(csvEscape(meal.getUnit()))
-                .append("\n"));
-        sb.append("\n");
-        sb.append("Recent Activities\n");
-        sb.append("Date,Type,Duration (min),Calories Burned\n");
-        activities.stream().limit(100).forEach(activity -> sb
-                .append(csvEscape(activity.getDate() != null ? activity.getDate().toString() : ""))
-                .append(",").append(csvEscape(activity.getType()))
-                .append(",").append(activity.getDuration() != null ? activity.getDuration() : 0)
-                .append(",").append(activity.getCaloriesBurned() != null ? activity.getCaloriesBurned() : 0)
-                .append("\n"));
-        return sb.toString();
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
     }
 
-    private byte[] buildPdfReport(User user,
-                                  int months,
-                                  List<Meal> meals,
-                                  List<Activity> activities,
-                                  LocalDate startDate,
-                                  LocalDate endDate) {
-        int totalMealCalories = meals.stream().mapToInt(m -> m.getCalories() != null ? m.getCalories() : 0).sum();
-        int totalBurned = activities.stream().mapToInt(a -> a.getCaloriesBurned() != null ? a.getCaloriesBurned() : 0).sum();
-        int totalProtein = meals.stream().mapToInt(m -> m.getProtein() != null ? m.getProtein() : 0).sum();
-        int totalCarbs = meals.stream().mapToInt(m -> m.getCarbs() != null ? m.getCarbs() : 0).sum();
-        int totalFats = meals.stream().mapToInt(m -> m.getFats() != null ? m.getFats() : 0).sum();
-        int days = Math.max(1, (int) ChronoUnit.DAYS.between(startDate, endDate) + 1);
-        int totalDuration = activities.stream().mapToInt(a -> a.getDuration() != null ? a.getDuration() : 0).sum();
+    byte[] buildPdfReport(User user,
+                          int months,
+                          List<Meal> meals,
+                          List<Activity> activities,
+                          LocalDate startDate,
+                          LocalDate endDate) {
+        DailyAggregator window = DailyAggregator.between(startDate, endDate);
+        meals.forEach(window::addMeal);
+        activities.forEach(window::addActivity);
+        DailyAggregator.Totals totals = window.totals();
+
+        int totalMealCalories = totals.consumed();
+        int totalBurned = totals.burned();
+        int totalProtein = totals.protein();
+        int totalCarbs = totals.carbs();
+        int totalFats = totals.fats();
+        int days = window.days();
+        int totalDuration = totals.duration();
         int netCalories = totalMealCalories - totalBurned;
         int proteinCalories = totalProtein * 4;
         int carbsCalories = totalCarbs * 4;
@@ -2,6 +2,8 @@ package com.calora.backend.controller;
 
 import com.calora.backend.model.User;
 import com.calora.backend.repository.UserRepository;
+import com.calora.backend.service.SocialStatsService;
+import com.calora.backend.service.UserSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +19,12 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private SocialStatsService socialStatsService;
+
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@RequestBody User user) {
         String normalizedEmail = normalizeEmail(user.getEmail());
@@ -39,6 +47,8 @@ public class AuthController {
             user.setIsPremium(false);
         }
         User savedUser = userRepository.save(user);
+        socialStatsService.userCreated(savedUser.getId());
+        userSearchIndex.upsert(savedUser);
         return ResponseEntity.ok(savedUser);
     }
 
@@ -0,0 +1,28 @@
+package com.calora.backend.controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Result of a batch logging request: one entry per submitted item, in submission order, carrying
+ * either the id of the created row or the reason the item was rejected.
+ */
+public record BatchLogResponse(int created, int rejected, List<Item> items) {
+
+    public static final int MAX_ITEMS = 500;
+
+    static BatchLogResponse of(Item[] items) {
+        int created = (int) Arrays.stream(items).filter(item -> item.id() != null).count();
+        return new BatchLogResponse(created, items.length - created, List.of(items));
+    }
+
+    public record Item(int index, Long id, String error) {
+        static Item created(int index, Long id) {
+            return new Item(index, id, null);
+        }
+
+        static Item rejected(int index, String error) {
+            return new Item(index, null, error);
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.calora.backend.controller;
 
-import com.calora.backend.model.Activity;
+import com.calora.backend.model.DailyRollup;
 import com.calora.backend.model.DashboardSummary;
-import com.calora.backend.model.Meal;
 import com.calora.backend.model.User;
 import com.calora.backend.repository.ActivityRepository;
-import com.calora.backend.repository.MealRepository;
+import com.calora.backend.repository.DailyRollupRepository;
 import com.calora.backend.repository.UserRepository;
+import com.calora.backend.service.DailyAggregator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,9 +14,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -25,7 +23,7 @@ import java.util.stream.Collectors;
 public class DashboardController {
 
         @Autowired
-        private MealRepository mealRepository;
+        private DailyRollupRepository dailyRollupRepository;
 
         @Autowired
         private ActivityRepository activityRepository;
@@ -33,9 +31,14 @@ public class DashboardController {
         @Autowired
         private UserRepository userRepository;
 
+        private static final int MIN_TREND_DAYS = 7;
+        private static final int MAX_TREND_DAYS = 90;
+
         @GetMapping("/summary/{userId}")
-        public org.springframework.http.ResponseEntity<?> getSummary(@PathVariable Long userId) {
+        public org.springframework.http.ResponseEntity<?> getSummary(@PathVariable Long userId,
+                        @RequestParam(defaultValue = "7") int days) {
                 DashboardSummary summary = new DashboardSummary();
+                int trendDays = Math.max(MIN_TREND_DAYS, Math.min(days, MAX_TREND_DAYS));
 
                 try {
                         Optional<User> userOpt = userRepository.findById(userId);
@@ -78,43 +81,34 @@ public class DashboardController {
                         summary.setCurrentWeight(user.getWeight());
                         summary.setWeightGoal(user.getWeight() != null ? user.getWeight() : 0.0);
 
-                        List<Meal> allMeals = mealRepository.findByUserId(userId);
-                        if (allMeals == null)
-                                allMeals = new ArrayList<>(); // Defensive check
-
-                        List<Activity> allActivities = activityRepository.findByUserId(userId);
-                        if (allActivities == null)
-                                allActivities = new ArrayList<>(); // Defensive check
-
                         LocalDate today = LocalDate.now();
 
-                        // 3. Today's Consumption
-                        Map<LocalDate, List<Meal>> mealsByDate = allMeals.stream()
-                                        .filter(m -> m.getDate() != null)
-                                        .collect(Collectors.groupingBy(m -> m.getDate().toLocalDate()));
-
-                        LocalDate effectiveMealDate = today;
-                        boolean hasTodayMeals = mealsByDate.containsKey(today) && !mealsByDate.get(today).isEmpty();
-                        if (!hasTodayMeals) {
-                                effectiveMealDate = mealsByDate.keySet().stream().max(LocalDate::compareTo).orElse(today);
+                        // 3. Today's Consumption (from the per-day rollups)
+                        DailyAggregator window = DailyAggregator.endingOn(today, trendDays);
+                        dailyRollupRepository
+                                        .findByUserIdAndDateBetweenOrderByDateAsc(userId, window.start(), today)
+                                        .forEach(window::addRollup);
+                        int todayIndex = window.days() - 1;
+
+                        int caloriesConsumed;
+                        int proteinConsumed;
+                        int carbsConsumed;
+                        int fatsConsumed;
+                        if (window.mealCount(todayIndex) > 0) {
+                                caloriesConsumed = window.consumed(todayIndex);
+                                proteinConsumed = window.protein(todayIndex);
+                                carbsConsumed = window.carbs(todayIndex);
+                                fatsConsumed = window.fats(todayIndex);
+                        } else {
+                                DailyRollup effectiveRollup = dailyRollupRepository
+                                                .findFirstByUserIdAndMealCountGreaterThanOrderByDateDesc(userId, 0)
+                                                .orElse(null);
+                                caloriesConsumed = effectiveRollup != null ? effectiveRollup.getCaloriesConsumed() : 0;
+                                proteinConsumed = effectiveRollup != null ? effectiveRollup.getProteinConsumed() : 0;
+                                carbsConsumed = effectiveRollup != null ? effectiveRollup.getCarbsConsumed() : 0;
+                                fatsConsumed = effectiveRollup != null ? effectiveRollup.getFatsConsumed() : 0;
                         }
-
-                        List<Meal> effectiveMeals = mealsByDate.getOrDefault(effectiveMealDate, List.of());
-                        int caloriesConsumed = effectiveMeals.stream()
-                                        .mapToInt(m -> m.getCalories() != null ? m.getCalories() : 0).sum();
-
-                        int proteinConsumed = effectiveMeals.stream()
-                                        .mapToInt(m -> m.getProtein() != null ? m.getProtein() : 0).sum();
-
-                        int carbsConsumed = effectiveMeals.stream()
-                                        .mapToInt(m -> m.getCarbs() != null ? m.getCarbs() : 0).sum();
-
-                        int fatsConsumed = effectiveMeals.stream()
-                                        .mapToInt(m -> m.getFats() != null ? m.getFats() : 0).sum();
-
-                        int caloriesBurned = allActivities.stream()
-                                        .filter(a -> a.getDate() != null && a.getDate().toLocalDate().isEqual(today))
-                                        .mapToInt(a -> a.getCaloriesBurned() != null ? a.getCaloriesBurned() : 0).sum();
+                        int caloriesBurned = window.burned(todayIndex);
 
                         summary.setCaloriesConsumed(caloriesConsumed);
                         summary.setCaloriesBurned(caloriesBurned);
@@ -124,10 +118,8 @@ public class DashboardController {
                         summary.setCaloriesRemaining(dailyTarget - caloriesConsumed + caloriesBurned);
 
                         // 4. Recent Activities (Last 5)
-                        List<DashboardSummary.RecentActivity> recentActivities = allActivities.stream()
-                                        .filter(a -> a.getDate() != null)
-                                        .sorted(Comparator.comparing(Activity::getDate).reversed())
-                                        .limit(5)
+                        List<DashboardSummary.RecentActivity> recentActivities = activityRepository
+                                        .findTop5ByUserIdAndDateIsNotNullOrderByDateDesc(userId).stream()
                                         .map(a -> new DashboardSummary.RecentActivity(
                                                         a.getId(),
                                                         a.getType() != null ? a.getType() : "Unknown",
@@ -137,30 +129,16 @@ public class DashboardController {
                                         .collect(Collectors.toList());
                         summary.setRecentActivities(recentActivities);
 
-                        // 5. Calorie Trends (Last 7 Days)
-                        List<DashboardSummary.DailyTrend> trends = new ArrayList<>();
+                        // 5. Calorie Trends (last 7 days unless a longer window was requested)
+                        List<DashboardSummary.DailyTrend> trends = new ArrayList<>(window.days());
                         DateTimeFormatter trendFormatter = DateTimeFormatter.ofPattern("MMM d");
 
-                        for (int i = 6; i >= 0; i--) {
-                                LocalDate date = today.minusDays(i);
-
-                                int dayConsumed = allMeals.stream()
-                                                .filter(m -> m.getDate() != null
-                                                                && m.getDate().toLocalDate().isEqual(date))
-                                                .mapToInt(m -> m.getCalories() != null ? m.getCalories() : 0).sum();
-
-                                int dayBurned = allActivities.stream()
-                                                .filter(a -> a.getDate() != null
-                                                                && a.getDate().toLocalDate().isEqual(date))
-                                                .mapToInt(a -> a.getCaloriesBurned() != null ? a.getCaloriesBurned()
-                                                                : 0)
-                                                .sum();
-
+                        for (int day = 0; day < window.days(); day++) {
                                 trends.add(new DashboardSummary.DailyTrend(
-                                                date.format(trendFormatter),
-                                                dayConsumed,
+                                                window.dateAt(day).format(trendFormatter),
+                                                window.consumed(day),
                                                 dailyTarget,
-                                                dayBurned));
+                                                window.burned(day)));
                         }
                         summary.setCalorieTrends(trends);
 
@@ -2,7 +2,18 @@ package com.calora.backend.controller;
 
 import com.calora.backend.model.*;
 import com.calora.backend.repository.*;
+import com.calora.backend.service.ExploreInteractionService;
+import com.calora.backend.service.ExploreThreadService;
+import com.calora.backend.service.FollowGraph;
+import com.calora.backend.service.HomeTimelineService;
+import com.calora.backend.service.IdempotencyService;
+import com.calora.backend.service.SocialStatsService;
+import com.calora.backend.service.UserSearchIndex;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,24 +35,52 @@ public class ExploreController {
     private ExploreCommentRepository commentRepository;
 
     @Autowired
-    private ExploreLikeRepository likeRepository;
+    private ExploreFollowRepository followRepository;
 
     @Autowired
-    private ExploreReactionRepository reactionRepository;
+    private ExploreMessageRepository messageRepository;
 
     @Autowired
-    private ExploreFollowRepository followRepository;
+    private ExploreFeedAssembler feedAssembler;
 
     @Autowired
-    private ExploreMessageRepository messageRepository;
+    private SocialStatsService socialStatsService;
+
+    @Autowired
+    private ExploreThreadRepository threadRepository;
+
+    @Autowired
+    private ExploreThreadService threadService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private HomeTimelineService homeTimelineService;
+
+    @Autowired
+    private ExploreInteractionService interactionService;
+
+    @Autowired
+    private FollowGraph followGraph;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_LATEST_COMMENTS = 20;
+    private static final int USER_SEARCH_LIMIT = 20;
 
     @GetMapping("/users")
     public List<ExploreUserSummary> getUsers() {
-        return userRepository.findAll().stream()
-                .map(this::toUserSummary)
-                .collect(Collectors.toList());
+        return toUserSummaries(userRepository.findAll());
     }
 
+    /**
+     * Matches {@code email} against users' email, name and handle through the in-memory
+     * {@link UserSearchIndex}, best match first; the matches are loaded and summarised in batches.
+     * Falls back to an email substring query until the index has been built.
+     */
     @GetMapping("/users/search")
     public ResponseEntity<?> searchUsersByEmail(
             @RequestParam String email,
@@ -52,14 +91,17 @@ public class ExploreController {
         }
 
         String query = email.trim();
-        List<ExploreUserSummary> response = userRepository.findByEmailContainingIgnoreCase(query).stream()
-                .filter(user -> requesterId == null || !user.getId().equals(requesterId))
-                .sorted(Comparator.comparing(User::getName, Comparator.nullsLast(String::compareToIgnoreCase)))
-                .limit(20)
-                .map(this::toUserSummary)
-                .collect(Collectors.toList());
+        if (!userSearchIndex.isReady()) {
+            List<User> matches = userRepository.findByEmailContainingIgnoreCase(query).stream()
+                    .filter(user -> requesterId == null || !user.getId().equals(requesterId))
+                    .sorted(Comparator.comparing(User::getName, Comparator.nullsLast(String::compareToIgnoreCase)))
+                    .limit(USER_SEARCH_LIMIT)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(toUserSummaries(matches));
+        }
 
-        return ResponseEntity.ok(response);
+        List<Long> ids = userSearchIndex.search(query, USER_SEARCH_LIMIT, requesterId);
+        return ResponseEntity.ok(toUserSummaries(findUsersInOrder(ids)));
     }
 
     @GetMapping("/users/{userId}/followers")
@@ -67,12 +109,15 @@ public class ExploreController {
         if (userRepository.findById(userId).isEmpty()) {
             return ResponseEntity.status(404).body("User not found");
         }
+        if (followGraph.isReady()) {
+            return ResponseEntity.ok(toUserSummaries(findUsersInOrder(
+                    Arrays.stream(followGraph.followersOf(userId)).boxed().toList())));
+        }
         List<ExploreFollow> followers = followRepository.findByFollowingId(userId);
-        List<ExploreUserSummary> response = followers.stream()
+        List<User> users = followers.stream()
                 .map(ExploreFollow::getFollower)
-                .map(this::toUserSummary)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(toUserSummaries(users));
     }
 
     @GetMapping("/users/{userId}/following")
@@ -80,27 +125,124 @@ public class ExploreController {
         if (userRepository.findById(userId).isEmpty()) {
             return ResponseEntity.status(404).body("User not found");
         }
+        if (followGraph.isReady()) {
+            return ResponseEntity.ok(toUserSummaries(findUsersInOrder(
+                    Arrays.stream(followGraph.followingOf(userId)).boxed().toList())));
+        }
         List<ExploreFollow> following = followRepository.findByFollowerId(userId);
-        List<ExploreUserSummary> response = following.stream()
+        List<User> users = following.stream()
                 .map(ExploreFollow::getFollowing)
-                .map(this::toUserSummary)
                 .collect(Collectors.toList());
+        return ResponseEntity.ok(toUserSummaries(users));
+    }
+
+    /** How {@code userId} and {@code with} are connected, answered from the in-memory follow graph. */
+    @GetMapping("/users/{userId}/relationship")
+    public FollowGraph.Relationship getRelationship(@PathVariable Long userId, @RequestParam(name = "with") Long withUserId) {
+        return followGraph.relationship(userId, withUserId);
+    }
+
+    /** People {@code userId} may know: accounts followed by the accounts they follow, ranked by the graph. */
+    @GetMapping("/users/{userId}/suggestions")
+    public ResponseEntity<?> getSuggestions(@PathVariable Long userId, @RequestParam(defaultValue = "10") int limit) {
+        List<FollowGraph.Suggestion> suggestions = followGraph.suggestions(userId, clampLimit(limit));
+        List<User> users = findUsersInOrder(suggestions.stream().map(FollowGraph.Suggestion::userId).toList());
+        Map<Long, ExploreUserSummary> summaries = toUserSummaries(users).stream()
+                .collect(Collectors.toMap(ExploreUserSummary::id, summary -> summary));
+
+        List<SuggestedUser> response = new ArrayList<>();
+        for (FollowGraph.Suggestion suggestion : suggestions) {
+            ExploreUserSummary summary = summaries.get(suggestion.userId());
+            if (summary != null) {
+                response.add(new SuggestedUser(summary, suggestion.mutualConnections(), suggestion.followsYou()));
+            }
+        }
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/posts")
-    public List<ExplorePostResponse> getPosts(@RequestParam(required = false) Long userId) {
-        List<ExplorePost> posts = userId != null
-                ? postRepository.findByUserIdOrderByCreatedAtDesc(userId)
-                : postRepository.findAllByOrderByCreatedAtDesc();
+    public ResponseEntity<?> getPosts(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after
+    ) {
+        ExploreCursor cursor;
+        try {
+            cursor = parseCursor(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
 
-        return posts.stream()
-                .map(this::toPostResponse)
-                .collect(Collectors.toList());
+        PostPage page = loadPosts(userId, cursor, clampLimit(limit));
+        return pageResponse(feedAssembler.assemble(page.posts()), page.next());
+    }
+
+    /**
+     * The posts of everyone {@code userId} follows, plus their own, newest first. One keyset read of
+     * the precomputed timeline, then the page's posts are loaded and assembled in batches.
+     */
+    @GetMapping("/timeline")
+    public ResponseEntity<?> getTimeline(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after
+    ) {
+        ExploreCursor cursor;
+        try {
+            cursor = parseCursor(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (userRepository.findById(userId).isEmpty()) {
+            return ResponseEntity.status(404).body("User not found");
+        }
+
+        PostPage page = loadTimeline(userId, cursor, clampLimit(limit));
+        return pageResponse(feedAssembler.assemble(page.posts()), page.next());
+    }
+
+    /**
+     * Compact feed: like count, per-emoji counts, comment count and the latest {@code comments}
+     * comments per post, plus whether {@code viewerId} liked or reacted to it. The payload per post
+     * is bounded however popular it is; full lists are paged by the likes, reactions and comments
+     * endpoints. With {@code following=true} the viewer's home timeline is read, otherwise all posts
+     * or those of {@code userId}.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(
+            @RequestParam(required = false) Long viewerId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean following,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "3") int comments,
+            @RequestParam(required = false) String after
+    ) {
+        ExploreCursor cursor;
+        try {
+            cursor = parseCursor(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (following && viewerId == null) {
+            return ResponseEntity.badRequest().body("viewerId is required for the following feed");
+        }
+
+        PostPage page = following
+                ? loadTimeline(viewerId, cursor, clampLimit(limit))
+                : loadPosts(userId, cursor, clampLimit(limit));
+        int latestComments = Math.max(0, Math.min(comments, MAX_LATEST_COMMENTS));
+        return pageResponse(feedAssembler.assembleCompact(page.posts(), viewerId, latestComments), page.next());
     }
 
     @PostMapping("/posts")
-    public ResponseEntity<?> createPost(@RequestBody CreatePostRequest request) {
+    @Transactional
+    public ResponseEntity<?> createPost(@RequestBody CreatePostRequest request,
+                                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("explore/posts", request != null ? request.userId : null, request,
+                idempotencyKey, () -> savePost(request));
+    }
+
+    private ResponseEntity<?> savePost(CreatePostRequest request) {
         if (request == null || request.userId == null) {
             return ResponseEntity.badRequest().body("userId is required");
         }
@@ -116,6 +258,8 @@ public class ExploreController {
             return ResponseEntity.badRequest().body("User not found");
         }
 
+        socialStatsService.beforePostChange(request.userId);
+
         ExplorePost post = new ExplorePost();
         post.setUser(userOpt.get());
         post.setType(parsePostType(request.type));
@@ -129,29 +273,20 @@ public class ExploreController {
         post.setCreatedAt(LocalDateTime.now());
 
         ExplorePost saved = postRepository.save(post);
-        return ResponseEntity.ok(toPostResponse(saved));
+        socialStatsService.applyPostChange(request.userId, 1);
+        homeTimelineService.postCreated(saved);
+        return ResponseEntity.ok(feedAssembler.stitch(List.of(saved), List.of(), List.of(), List.of()).get(0));
     }
 
     @PostMapping("/posts/{postId}/like")
     public ResponseEntity<?> toggleLike(@PathVariable Long postId, @RequestParam Long userId) {
-        Optional<ExplorePost> postOpt = postRepository.findById(postId);
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (postOpt.isEmpty() || userOpt.isEmpty()) {
+        try {
+            return ResponseEntity.ok(new LikeState(interactionService.toggleLike(postId, userId)));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(409).body("The post changed concurrently, try again");
+        } catch (DataIntegrityViolationException e) {
             return ResponseEntity.badRequest().body("Invalid post or user");
         }
-
-        Optional<ExploreLike> existing = likeRepository.findByPostIdAndUserId(postId, userId);
-        if (existing.isPresent()) {
-            likeRepository.delete(existing.get());
-            return ResponseEntity.ok(new LikeState(false));
-        }
-
-        ExploreLike like = new ExploreLike();
-        like.setPost(postOpt.get());
-        like.setUser(userOpt.get());
-        like.setCreatedAt(LocalDateTime.now());
-        likeRepository.save(like);
-        return ResponseEntity.ok(new LikeState(true));
     }
 
     @PostMapping("/posts/{postId}/reaction")
@@ -160,32 +295,85 @@ public class ExploreController {
             return ResponseEntity.badRequest().body("userId and emoji are required");
         }
 
-        Optional<ExplorePost> postOpt = postRepository.findById(postId);
-        Optional<User> userOpt = userRepository.findById(request.userId);
-        if (postOpt.isEmpty() || userOpt.isEmpty()) {
+        try {
+            return ResponseEntity.ok(new ReactionState(
+                    interactionService.toggleReaction(postId, request.userId, request.emoji)));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(409).body("The post changed concurrently, try again");
+        } catch (DataIntegrityViolationException e) {
             return ResponseEntity.badRequest().body("Invalid post or user");
         }
+    }
 
-        Optional<ExploreReaction> existing = reactionRepository.findByPostIdAndUserId(postId, request.userId);
-        if (existing.isPresent()) {
-            ExploreReaction reaction = existing.get();
-            if (reaction.getEmoji() != null && reaction.getEmoji().equals(request.emoji)) {
-                reactionRepository.delete(reaction);
-                return ResponseEntity.ok(new ReactionState(false));
-            }
-            reaction.setEmoji(request.emoji);
-            reaction.setCreatedAt(LocalDateTime.now());
-            reactionRepository.save(reaction);
-            return ResponseEntity.ok(new ReactionState(true));
+    /** The post's likers in user id order; {@code after} is the last user id of the previous page. */
+    @GetMapping("/posts/{postId}/likes")
+    public ResponseEntity<?> getLikes(
+            @PathVariable Long postId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Long after
+    ) {
+        int pageSize = clampLimit(limit);
+        List<Long> likers = interactionService.likers(postId, after, pageSize + 1);
+        String next = null;
+        if (likers.size() > pageSize) {
+            likers = likers.subList(0, pageSize);
+            next = String.valueOf(likers.get(pageSize - 1));
         }
+        return idPageResponse(likers, next);
+    }
 
-        ExploreReaction reaction = new ExploreReaction();
-        reaction.setPost(postOpt.get());
-        reaction.setUser(userOpt.get());
-        reaction.setEmoji(request.emoji);
-        reaction.setCreatedAt(LocalDateTime.now());
-        reactionRepository.save(reaction);
-        return ResponseEntity.ok(new ReactionState(true));
+    /** The post's reactions in user id order, optionally only one {@code emoji}. */
+    @GetMapping("/posts/{postId}/reactions")
+    public ResponseEntity<?> getReactions(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String emoji,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Long after
+    ) {
+        int pageSize = clampLimit(limit);
+        List<ExploreInteractionService.Reactor> reactors = interactionService.reactors(postId,
+                emoji != null && !emoji.isBlank() ? emoji : null, after, pageSize + 1);
+        String next = null;
+        if (reactors.size() > pageSize) {
+            reactors = reactors.subList(0, pageSize);
+            next = String.valueOf(reactors.get(pageSize - 1).userId());
+        }
+        return idPageResponse(reactors, next);
+    }
+
+    @GetMapping("/posts/{postId}/comments")
+    public ResponseEntity<?> getComments(
+            @PathVariable Long postId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after
+    ) {
+        ExploreCursor cursor;
+        try {
+            cursor = parseCursor(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        int pageSize = clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<ExploreCommentRepository.PostCommentRef> comments = cursor == null
+                ? commentRepository.findFirstPage(postId, page)
+                : commentRepository.findPageAfter(postId, cursor.createdAt(), cursor.id(), page);
+
+        ExploreCursor next = null;
+        if (comments.size() > pageSize) {
+            comments = comments.subList(0, pageSize);
+            ExploreCommentRepository.PostCommentRef last = comments.get(pageSize - 1);
+            next = new ExploreCursor(last.getCreatedAt(), last.getId());
+        }
+        List<ExploreCommentResponse> response = comments.stream()
+                .map(comment -> new ExploreCommentResponse(
+                        comment.getId(),
+                        comment.getUserId(),
+                        comment.getText(),
+                        comment.getCreatedAt()))
+                .collect(Collectors.toList());
+        return pageResponse(response, next);
     }
 
     @PostMapping("/posts/{postId}/comments")
@@ -210,6 +398,7 @@ public class ExploreController {
     }
 
     @PostMapping("/follows")
+    @Transactional
     public ResponseEntity<?> follow(@RequestBody FollowRequest request) {
         if (request == null || request.followerId == null || request.followingId == null) {
             return ResponseEntity.badRequest().body("followerId and followingId are required");
@@ -228,69 +417,156 @@ public class ExploreController {
             return ResponseEntity.ok().build();
         }
 
+        socialStatsService.beforeFollowChange(request.followerId, request.followingId);
         ExploreFollow follow = new ExploreFollow();
         follow.setFollower(followerOpt.get());
         follow.setFollowing(followingOpt.get());
         follow.setCreatedAt(LocalDateTime.now());
         followRepository.save(follow);
+        socialStatsService.applyFollowChange(request.followerId, request.followingId, 1);
+        homeTimelineService.followed(request.followerId, request.followingId);
+        followGraph.followed(request.followerId, request.followingId);
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/follows")
+    @Transactional
     public ResponseEntity<?> unfollow(@RequestParam Long followerId, @RequestParam Long followingId) {
         Optional<ExploreFollow> existing = followRepository.findByFollowerIdAndFollowingId(followerId, followingId);
         if (existing.isPresent()) {
+            socialStatsService.beforeFollowChange(followerId, followingId);
             followRepository.delete(existing.get());
+            socialStatsService.applyFollowChange(followerId, followingId, -1);
+            homeTimelineService.unfollowed(followerId, followingId);
+            followGraph.unfollowed(followerId, followingId);
         }
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/messages")
-    public ResponseEntity<?> getMessages(@RequestParam Long userId, @RequestParam(name = "with") Long withUserId) {
+    public ResponseEntity<?> getMessages(
+            @RequestParam Long userId,
+            @RequestParam(name = "with") Long withUserId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after
+    ) {
         if (userRepository.findById(userId).isEmpty() || userRepository.findById(withUserId).isEmpty()) {
             return ResponseEntity.badRequest().body("Invalid users");
         }
-        List<ExploreMessageResponse> response = messageRepository.findConversation(userId, withUserId).stream()
-                .map(this::toMessageResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        ExploreCursor cursor;
+        try {
+            cursor = parseCursor(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        // Pages walk backwards from the newest message; each page is returned oldest-first.
+        int pageSize = clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<ExploreMessage> messages = conversationPage(userId, withUserId, cursor, page);
+
+        if (cursor == null) {
+            threadService.markRead(userId, withUserId);
+        }
+
+        ExploreCursor next = null;
+        if (messages.size() > pageSize) {
+            messages = messages.subList(0, pageSize);
+            ExploreMessage oldest = messages.get(pageSize - 1);
+            next = new ExploreCursor(oldest.getCreatedAt(), oldest.getId());
+        }
+        List<ExploreMessageResponse> response = new ArrayList<>(messages.size());
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            response.add(toMessageResponse(messages.get(i)));
+        }
+        return pageResponse(response, next);
+    }
+
+    /**
+     * The newest messages of the conversation before {@code cursor}: one index seek per direction,
+     * each bounded by the page size, merged newest first.
+     */
+    private List<ExploreMessage> conversationPage(Long userId, Long withUserId, ExploreCursor cursor, PageRequest page) {
+        List<ExploreMessage> sent = cursor == null
+                ? messageRepository.findLatestSentPage(userId, withUserId, page)
+                : messageRepository.findSentPageBefore(userId, withUserId, cursor.createdAt(), cursor.id(), page);
+        List<ExploreMessage> received = cursor == null
+                ? messageRepository.findLatestSentPage(withUserId, userId, page)
+                : messageRepository.findSentPageBefore(withUserId, userId, cursor.createdAt(), cursor.id(), page);
+
+        List<ExploreMessage> merged = new ArrayList<>(sent.size() + received.size());
+        merged.addAll(sent);
+        merged.addAll(received);
+        merged.sort(Comparator.comparing(ExploreMessage::getCreatedAt).thenComparing(ExploreMessage::getId).reversed());
+        return merged.size() > page.getPageSize() ? merged.subList(0, page.getPageSize()) : merged;
     }
 
     @GetMapping("/messages/threads")
-    public ResponseEntity<?> getThreads(@RequestParam Long userId) {
+    public ResponseEntity<?> getThreads(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after
+    ) {
         if (userRepository.findById(userId).isEmpty()) {
             return ResponseEntity.status(404).body("User not found");
         }
+        ExploreCursor cursor;
+        try {
+            cursor = parseCursor(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
 
-        List<ExploreMessage> messages = messageRepository
-                .findByFromUserIdOrToUserIdOrderByCreatedAtDesc(userId, userId);
+        int pageSize = clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<ExploreThread> threads = cursor == null
+                ? threadRepository.findByUserIdOrderByLastAtDescIdDesc(userId, page)
+                : threadRepository.findPageBefore(userId, cursor.createdAt(), cursor.id(), page);
+
+        ExploreCursor next = null;
+        if (threads.size() > pageSize) {
+            threads = threads.subList(0, pageSize);
+            ExploreThread last = threads.get(pageSize - 1);
+            next = new ExploreCursor(last.getLastAt(), last.getId());
+        }
+
+        List<Long> counterpartIds = threads.stream().map(ExploreThread::getCounterpartId).collect(Collectors.toList());
+        Map<Long, User> counterparts = new HashMap<>();
+        for (User user : userRepository.findAllById(counterpartIds)) {
+            counterparts.put(user.getId(), user);
+        }
+        Map<Long, UserSocialStats> stats = socialStatsService.statsFor(counterparts.keySet());
 
-        Map<Long, ExploreThreadSummary> threads = new LinkedHashMap<>();
-        for (ExploreMessage message : messages) {
-            User other = message.getFromUser().getId().equals(userId)
-                    ? message.getToUser()
-                    : message.getFromUser();
+        List<ExploreThreadSummary> response = new ArrayList<>();
+        for (ExploreThread thread : threads) {
+            User other = counterparts.get(thread.getCounterpartId());
             if (other == null) continue;
-            if (!threads.containsKey(other.getId())) {
-                ExploreUserSummary userSummary = toUserSummary(other);
-                threads.put(other.getId(), new ExploreThreadSummary(
-                        other.getId(),
-                        userSummary.name(),
-                        userSummary.handle(),
-                        userSummary.title(),
-                        userSummary.avatarColor(),
-                        userSummary.profilePicture(),
-                        message.getText(),
-                        message.getCreatedAt()
-                ));
-            }
+            ExploreUserSummary userSummary = toUserSummary(other, stats.get(other.getId()));
+            response.add(new ExploreThreadSummary(
+                    other.getId(),
+                    userSummary.name(),
+                    userSummary.handle(),
+                    userSummary.title(),
+                    userSummary.avatarColor(),
+                    userSummary.profilePicture(),
+                    thread.getLastText(),
+                    thread.getLastAt(),
+                    thread.getUnreadCount()
+            ));
         }
 
-        return ResponseEntity.ok(new ArrayList<>(threads.values()));
+        return pageResponse(response, next);
     }
 
     @PostMapping("/messages")
-    public ResponseEntity<?> sendMessage(@RequestBody MessageRequest request) {
+    @Transactional
+    public ResponseEntity<?> sendMessage(@RequestBody MessageRequest request,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("explore/messages", request != null ? request.fromUserId : null, request,
+                idempotencyKey, () -> saveMessage(request));
+    }
+
+    private ResponseEntity<?> saveMessage(MessageRequest request) {
         if (request == null || request.fromUserId == null || request.toUserId == null
                 || request.text == null || request.text.isBlank()) {
             return ResponseEntity.badRequest().body("fromUserId, toUserId, and text are required");
@@ -306,13 +582,32 @@ public class ExploreController {
         message.setText(request.text.trim());
         message.setCreatedAt(LocalDateTime.now());
         ExploreMessage saved = messageRepository.save(message);
+        threadService.recordMessage(saved);
         return ResponseEntity.ok(toMessageResponse(saved));
     }
 
-    private ExploreUserSummary toUserSummary(User user) {
-        long followers = followRepository.countByFollowingId(user.getId());
-        long following = followRepository.countByFollowerId(user.getId());
-        long posts = postRepository.countByUserId(user.getId());
+    /** Loads the users in one query, keeping the order of {@code ids} and skipping missing ones. */
+    private List<User> findUsersInOrder(List<Long> ids) {
+        Map<Long, User> usersById = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        return ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<ExploreUserSummary> toUserSummaries(List<User> users) {
+        Map<Long, UserSocialStats> stats = socialStatsService.statsFor(
+                users.stream().map(User::getId).collect(Collectors.toList()));
+        return users.stream()
+                .map(user -> toUserSummary(user, stats.get(user.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private ExploreUserSummary toUserSummary(User user, UserSocialStats stats) {
+        long followers = stats.getFollowers();
+        long following = stats.getFollowing();
+        long posts = stats.getPosts();
 
         String handle = user.getHandle();
         if (handle == null || handle.isBlank()) {
@@ -343,40 +638,6 @@ public class ExploreController {
         );
     }
 
-    private ExplorePostResponse toPostResponse(ExplorePost post) {
-        List<Long> likes = likeRepository.findByPostId(post.getId()).stream()
-                .map(like -> like.getUser().getId())
-                .collect(Collectors.toList());
-
-        Map<String, List<Long>> reactions = new LinkedHashMap<>();
-        for (ExploreReaction reaction : reactionRepository.findByPostId(post.getId())) {
-            String emoji = reaction.getEmoji();
-            if (emoji == null) continue;
-            reactions.computeIfAbsent(emoji, key -> new ArrayList<>()).add(reaction.getUser().getId());
-        }
-
-        List<ExploreCommentResponse> comments = commentRepository.findByPostIdOrderByCreatedAtAsc(post.getId()).stream()
-                .map(this::toCommentResponse)
-                .collect(Collectors.toList());
-
-        return new ExplorePostResponse(
-                post.getId(),
-                post.getUser().getId(),
-                post.getType() != null ? post.getType().name().toLowerCase(Locale.ROOT) : "activity",
-                post.getTitle(),
-                post.getSummary(),
-                defaultInt(post.getCalories()),
-                post.getProtein(),
-                post.getCarbs(),
-                post.getFats(),
-                post.getDuration(),
-                post.getCreatedAt(),
-                likes,
-                reactions,
-                comments
-        );
-    }
-
     private ExploreCommentResponse toCommentResponse(ExploreComment comment) {
         return new ExploreCommentResponse(
                 comment.getId(),
@@ -403,6 +664,78 @@ public class ExploreController {
         return ExplorePostType.ACTIVITY;
     }
 
+    private ExploreCursor parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        return ExploreCursor.decode(after.trim());
+    }
+
+    private ResponseEntity<?> pageResponse(List<?> items, ExploreCursor next) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (next != null) {
+            builder.header(ExploreCursor.HEADER, next.encode());
+        }
+        return builder.body(items);
+    }
+
+    private ResponseEntity<?> idPageResponse(List<?> items, String next) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (next != null) {
+            builder.header(ExploreCursor.HEADER, next);
+        }
+        return builder.body(items);
+    }
+
+    private PostPage loadPosts(Long userId, ExploreCursor cursor, int pageSize) {
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<ExplorePost> posts;
+        if (userId != null) {
+            posts = cursor == null
+                    ? postRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, page)
+                    : postRepository.findUserPageBefore(userId, cursor.createdAt(), cursor.id(), page);
+        } else {
+            posts = cursor == null
+                    ? postRepository.findAllByOrderByCreatedAtDescIdDesc(page)
+                    : postRepository.findPageBefore(cursor.createdAt(), cursor.id(), page);
+        }
+
+        ExploreCursor next = null;
+        if (posts.size() > pageSize) {
+            posts = posts.subList(0, pageSize);
+            ExplorePost last = posts.get(pageSize - 1);
+            next = new ExploreCursor(last.getCreatedAt(), last.getId());
+        }
+        return new PostPage(posts, next);
+    }
+
+    private PostPage loadTimeline(Long userId, ExploreCursor cursor, int pageSize) {
+        List<HomeTimelineService.Entry> entries = homeTimelineService.readPage(userId,
+                cursor != null ? cursor.createdAt() : null,
+                cursor != null ? cursor.id() : null,
+                pageSize + 1);
+
+        ExploreCursor next = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            HomeTimelineService.Entry last = entries.get(pageSize - 1);
+            next = new ExploreCursor(last.createdAt(), last.postId());
+        }
+
+        List<Long> postIds = entries.stream().map(HomeTimelineService.Entry::postId).toList();
+        Map<Long, ExplorePost> postsById = postRepository.findByIdIn(postIds).stream()
+                .collect(Collectors.toMap(ExplorePost::getId, post -> post));
+        List<ExplorePost> posts = postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PostPage(posts, next);
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
     private int defaultInt(Integer value) {
         return value == null ? 0 : value;
     }
@@ -461,6 +794,12 @@ public class ExploreController {
             long posts
     ) {}
 
+    public record SuggestedUser(
+            ExploreUserSummary user,
+            int mutualConnections,
+            boolean followsYou
+    ) {}
+
     public record ExplorePostResponse(
             Long id,
             Long userId,
@@ -478,6 +817,26 @@ public class ExploreController {
             List<ExploreCommentResponse> comments
     ) {}
 
+    public record CompactPostResponse(
+            Long id,
+            Long userId,
+            String type,
+            String title,
+            String summary,
+            int calories,
+            Integer protein,
+            Integer carbs,
+            Integer fats,
+            Integer duration,
+            LocalDateTime createdAt,
+            long likeCount,
+            Map<String, Long> reactionCounts,
+            boolean likedByViewer,
+            String viewerReaction,
+            long commentCount,
+            List<ExploreCommentResponse> latestComments
+    ) {}
+
     public record ExploreCommentResponse(
             Long id,
             Long userId,
@@ -501,9 +860,12 @@ public class ExploreController {
             String withAvatarColor,
             String profilePicture,
             String lastMessage,
-            LocalDateTime lastAt
+            LocalDateTime lastAt,
+            int unreadCount
     ) {}
 
+    private record PostPage(List<ExplorePost> posts, ExploreCursor next) {}
+
     public record LikeState(boolean liked) {}
 
     public record ReactionState(boolean reacted) {}
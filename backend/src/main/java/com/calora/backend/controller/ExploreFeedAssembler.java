@@ -0,0 +1,144 @@
+package com.calora.backend.controller;
+
+import com.calora.backend.controller.ExploreController.CompactPostResponse;
+import com.calora.backend.controller.ExploreController.ExploreCommentResponse;
+import com.calora.backend.controller.ExploreController.ExplorePostResponse;
+import com.calora.backend.model.ExplorePost;
+import com.calora.backend.repository.ExploreCommentRepository;
+import com.calora.backend.repository.ExploreCommentRepository.PostCommentRef;
+import com.calora.backend.repository.ExploreLikeRepository;
+import com.calora.backend.repository.ExploreLikeRepository.PostLikeRef;
+import com.calora.backend.repository.ExploreReactionRepository;
+import com.calora.backend.repository.ExploreReactionRepository.PostReactionRef;
+import com.calora.backend.service.ExploreInteractionService;
+import com.calora.backend.service.ExploreInteractionService.PostEngagement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Builds {@link ExplorePostResponse} records for a page of posts with a fixed number of queries:
+ * likes, reactions and comments for every post on the page are fetched in one batch each and
+ * stitched together in memory. {@link #assembleCompact} builds the bounded variant from the
+ * interaction counters instead of the full lists.
+ */
+@Component
+public class ExploreFeedAssembler {
+
+    @Autowired
+    private ExploreLikeRepository likeRepository;
+
+    @Autowired
+    private ExploreReactionRepository reactionRepository;
+
+    @Autowired
+    private ExploreCommentRepository commentRepository;
+
+    @Autowired
+    private ExploreInteractionService interactionService;
+
+    public List<ExplorePostResponse> assemble(List<ExplorePost> posts) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> postIds = posts.stream().map(ExplorePost::getId).toList();
+        return stitch(posts,
+                likeRepository.findRefsByPostIdIn(postIds),
+                reactionRepository.findRefsByPostIdIn(postIds),
+                commentRepository.findRefsByPostIdIn(postIds));
+    }
+
+    public List<ExplorePostResponse> stitch(List<ExplorePost> posts,
+                                            List<? extends PostLikeRef> likeRefs,
+                                            List<? extends PostReactionRef> reactionRefs,
+                                            List<? extends PostCommentRef> commentRefs) {
+        Map<Long, List<Long>> likesByPost = new HashMap<>();
+        for (PostLikeRef like : likeRefs) {
+            likesByPost.computeIfAbsent(like.getPostId(), key -> new ArrayList<>()).add(like.getUserId());
+        }
+
+        Map<Long, Map<String, List<Long>>> reactionsByPost = new HashMap<>();
+        for (PostReactionRef reaction : reactionRefs) {
+            String emoji = reaction.getEmoji();
+            if (emoji == null) continue;
+            reactionsByPost.computeIfAbsent(reaction.getPostId(), key -> new LinkedHashMap<>())
+                    .computeIfAbsent(emoji, key -> new ArrayList<>())
+                    .add(reaction.getUserId());
+        }
+
+        Map<Long, List<ExploreCommentResponse>> commentsByPost = new HashMap<>();
+        for (PostCommentRef comment : commentRefs) {
+            commentsByPost.computeIfAbsent(comment.getPostId(), key -> new ArrayList<>())
+                    .add(new ExploreCommentResponse(
+                            comment.getId(),
+                            comment.getUserId(),
+                            comment.getText(),
+                            comment.getCreatedAt()
+                    ));
+        }
+
+        List<ExplorePostResponse> responses = new ArrayList<>(posts.size());
+        for (ExplorePost post : posts) {
+            responses.add(new ExplorePostResponse(
+                    post.getId(),
+                    post.getUser().getId(),
+                    post.getType() != null ? post.getType().name().toLowerCase(Locale.ROOT) : "activity",
+                    post.getTitle(),
+                    post.getSummary(),
+                    post.getCalories() == null ? 0 : post.getCalories(),
+                    post.getProtein(),
+                    post.getCarbs(),
+                    post.getFats(),
+                    post.getDuration(),
+                    post.getCreatedAt(),
+                    likesByPost.getOrDefault(post.getId(), new ArrayList<>()),
+                    reactionsByPost.getOrDefault(post.getId(), new LinkedHashMap<>()),
+                    commentsByPost.getOrDefault(post.getId(), new ArrayList<>())
+            ));
+        }
+        return responses;
+    }
+
+    public List<CompactPostResponse> assembleCompact(List<ExplorePost> posts, Long viewerId, int latestComments) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> postIds = posts.stream().map(ExplorePost::getId).toList();
+        Map<Long, PostEngagement> engagementByPost = interactionService.engagementFor(postIds, viewerId, latestComments);
+        PostEngagement none = new PostEngagement();
+
+        List<CompactPostResponse> responses = new ArrayList<>(posts.size());
+        for (ExplorePost post : posts) {
+            PostEngagement engagement = engagementByPost.getOrDefault(post.getId(), none);
+            responses.add(new CompactPostResponse(
+                    post.getId(),
+                    post.getUser().getId(),
+                    post.getType() != null ? post.getType().name().toLowerCase(Locale.ROOT) : "activity",
+                    post.getTitle(),
+                    post.getSummary(),
+                    post.getCalories() == null ? 0 : post.getCalories(),
+                    post.getProtein(),
+                    post.getCarbs(),
+                    post.getFats(),
+                    post.getDuration(),
+                    post.getCreatedAt(),
+                    engagement.likes(),
+                    engagement.reactions(),
+                    engagement.likedByViewer(),
+                    engagement.viewerReaction(),
+                    engagement.comments(),
+                    engagement.latestComments().stream()
+                            .map(comment -> new ExploreCommentResponse(
+                                    comment.id(),
+                                    comment.userId(),
+                                    comment.text(),
+                                    comment.createdAt()))
+                            .toList()
+            ));
+        }
+        return responses;
+    }
+}
@@ -2,45 +2,89 @@ package com.calora.backend.controller;
 
 import com.calora.backend.model.FoodItem;
 import com.calora.backend.model.FoodItemType;
-import com.calora.backend.repository.FoodItemRepository;
+import com.calora.backend.service.BoundedCache;
+import com.calora.backend.service.FoodCatalogImporter;
+import com.calora.backend.service.FoodCatalogService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 public class FoodCatalogController {
 
+    private static final int MAX_SEARCH_RESULTS = 200;
+
+    @Autowired
+    private FoodCatalogService foodCatalogService;
+
     @Autowired
-    private FoodItemRepository foodItemRepository;
+    private FoodCatalogImporter foodCatalogImporter;
 
     @GetMapping("/foods")
     public List<FoodItem> getFoods(
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String category) {
-        return queryByType(FoodItemType.FOOD, search, category);
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "50") int limit) {
+        return foodCatalogService.query(FoodItemType.FOOD, search, category, clampLimit(limit));
     }
 
     @GetMapping("/recipes")
     public List<FoodItem> getFamousRecipes(
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String category) {
-        return queryByType(FoodItemType.FAMOUS_RECIPE, search, category);
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "50") int limit) {
+        return foodCatalogService.query(FoodItemType.FAMOUS_RECIPE, search, category, clampLimit(limit));
     }
 
-    private List<FoodItem> queryByType(FoodItemType type, String search, String category) {
-        boolean hasSearch = search != null && !search.isBlank();
-        boolean hasCategory = category != null && !category.isBlank() && !"All".equalsIgnoreCase(category);
+    @GetMapping("/foods/cache-stats")
+    public BoundedCache.Stats getCacheStats() {
+        return foodCatalogService.cacheStats();
+    }
+
+    @PostMapping("/foods/import")
+    public ResponseEntity<?> importFoods(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("Import file is empty");
+        }
+
+        FoodCatalogImporter.Format importFormat = resolveFormat(format, file.getOriginalFilename());
+        if (importFormat == null) {
+            return ResponseEntity.badRequest().body("Unsupported import format, expected csv or json");
+        }
 
-        if (hasSearch && hasCategory) {
-            return foodItemRepository.findByTypeAndCategoryAndNameContainingIgnoreCaseOrderByNameAsc(type, category, search);
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(foodCatalogImporter.importFile(in, importFormat));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Could not read import file");
         }
-        if (hasSearch) {
-            return foodItemRepository.findByTypeAndNameContainingIgnoreCaseOrderByNameAsc(type, search);
+    }
+
+    private FoodCatalogImporter.Format resolveFormat(String format, String fileName) {
+        String value = format;
+        if ((value == null || value.isBlank()) && fileName != null && fileName.contains(".")) {
+            value = fileName.substring(fileName.lastIndexOf('.') + 1);
         }
-        if (hasCategory) {
-            return foodItemRepository.findByTypeAndCategoryOrderByNameAsc(type, category);
+        if (value == null) {
+            return null;
         }
-        return foodItemRepository.findByTypeOrderByNameAsc(type);
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> FoodCatalogImporter.Format.CSV;
+            case "json" -> FoodCatalogImporter.Format.JSON;
+            default -> null;
+        };
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
     }
 }
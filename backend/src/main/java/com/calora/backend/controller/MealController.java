@@ -1,15 +1,21 @@
 package com.calora.backend.controller;
 
 import com.calora.backend.model.Meal;
+import com.calora.backend.model.MealView;
 import com.calora.backend.model.User;
 import com.calora.backend.repository.MealRepository;
 import com.calora.backend.repository.UserRepository;
+import com.calora.backend.service.DailyRollupService;
+import com.calora.backend.service.IdempotencyService;
+import com.calora.backend.service.JournalBatchWriter;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,18 +29,27 @@ public class MealController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private JournalBatchWriter journalBatchWriter;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @GetMapping
-    public List<Meal> getAllMeals() {
-        return mealRepository.findAll();
+    public List<MealView> getAllMeals() {
+        return mealRepository.findAllViews();
     }
 
     @GetMapping("/user/{userId}")
-    public List<Meal> getUserMeals(@PathVariable Long userId) {
-        return mealRepository.findByUserId(userId);
+    public List<MealView> getUserMeals(@PathVariable Long userId) {
+        return mealRepository.findViewsByUserId(userId);
     }
 
     @GetMapping("/user/{userId}/range")
-    public List<Meal> getUserMealsInRange(
+    public List<MealView> getUserMealsInRange(
             @PathVariable Long userId,
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to) {
@@ -43,11 +58,18 @@ public class MealController {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay().minusNanos(1);
 
-        return mealRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, startDateTime, endDateTime);
+        return mealRepository.findViewsByUserIdAndDateBetween(userId, startDateTime, endDateTime);
     }
 
     @PostMapping
-    public ResponseEntity<?> createMeal(@RequestBody Meal meal) {
+    @Transactional
+    public ResponseEntity<?> createMeal(@RequestBody Meal meal,
+                                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("meals", meal.getUser() != null ? meal.getUser().getId() : null, meal,
+                idempotencyKey, () -> saveMeal(meal));
+    }
+
+    private ResponseEntity<?> saveMeal(Meal meal) {
         if (meal.getUser() == null || meal.getUser().getId() == null) {
             return ResponseEntity.badRequest().body("User id is required");
         }
@@ -58,24 +80,74 @@ public class MealController {
         }
 
         meal.setUser(userOpt.get());
-        if (meal.getDate() == null) {
-            meal.setDate(LocalDateTime.now());
+        applyDefaults(meal);
+
+        Meal saved = mealRepository.save(meal);
+        dailyRollupService.recordMeal(saved);
+        return ResponseEntity.ok(MealView.of(saved));
+    }
+
+    /**
+     * Logs several meals for one user in a single request, e.g. entries queued by a client
+     * while offline. The user is looked up once, valid items are inserted as one JDBC batch and the
+     * response reports the new id or the rejection reason for every item.
+     */
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<?> createMeals(@RequestBody MealBatchRequest request,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("meals/batch", request != null ? request.userId() : null, request,
+                idempotencyKey, () -> saveMeals(request));
+    }
+
+    private ResponseEntity<?> saveMeals(MealBatchRequest request) {
+        if (request == null || request.userId() == null) {
+            return ResponseEntity.badRequest().body("User id is required");
         }
-        if (meal.getMealType() == null || meal.getMealType().isBlank()) {
-            meal.setMealType("unspecified");
+        if (request.items() == null || request.items().isEmpty()) {
+            return ResponseEntity.badRequest().body("At least one item is required");
         }
-        if (meal.getQuantity() == null) {
-            meal.setQuantity(1.0);
+        if (request.items().size() > BatchLogResponse.MAX_ITEMS) {
+            return ResponseEntity.badRequest().body("At most " + BatchLogResponse.MAX_ITEMS + " items per batch");
         }
-        if (meal.getUnit() == null || meal.getUnit().isBlank()) {
-            meal.setUnit("serving");
+
+        Optional<User> userOpt = userRepository.findById(request.userId());
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body("User not found");
+        }
+        User user = userOpt.get();
+
+        BatchLogResponse.Item[] results = new BatchLogResponse.Item[request.items().size()];
+        List<Meal> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            Meal meal = request.items().get(i);
+            if (meal == null) {
+                results[i] = BatchLogResponse.Item.rejected(i, "Item is empty");
+                continue;
+            }
+            if (meal.getUser() != null && meal.getUser().getId() != null && !user.getId().equals(meal.getUser().getId())) {
+                results[i] = BatchLogResponse.Item.rejected(i, "Item belongs to another user");
+                continue;
+            }
+            meal.setId(null);
+            meal.setUser(user);
+            applyDefaults(meal);
+            accepted.add(meal);
+            acceptedIndexes.add(i);
         }
 
-        Meal saved = mealRepository.save(meal);
-        return ResponseEntity.ok(saved);
+        journalBatchWriter.insertMeals(accepted);
+        dailyRollupService.recordMeals(accepted);
+        for (int k = 0; k < accepted.size(); k++) {
+            int index = acceptedIndexes.get(k);
+            results[index] = BatchLogResponse.Item.created(index, accepted.get(k).getId());
+        }
+        return ResponseEntity.ok(BatchLogResponse.of(results));
     }
 
     @DeleteMapping("/{mealId}")
+    @Transactional
     public ResponseEntity<?> deleteMeal(@PathVariable Long mealId, @RequestParam(required = false) Long userId) {
         Optional<Meal> mealOpt = mealRepository.findById(mealId);
         if (mealOpt.isEmpty()) {
@@ -87,7 +159,25 @@ public class MealController {
             return ResponseEntity.status(403).body("Not allowed to delete this meal");
         }
 
-        mealRepository.deleteById(mealId);
+        mealRepository.delete(meal);
+        dailyRollupService.removeMeal(meal);
         return ResponseEntity.ok().build();
     }
+
+    private void applyDefaults(Meal meal) {
+        if (meal.getDate() == null) {
+            meal.setDate(LocalDateTime.now());
+        }
+        if (meal.getMealType() == null || meal.getMealType().isBlank()) {
+            meal.setMealType("unspecified");
+        }
+        if (meal.getQuantity() == null) {
+            meal.setQuantity(1.0);
+        }
+        if (meal.getUnit() == null || meal.getUnit().isBlank()) {
+            meal.setUnit("serving");
+        }
+    }
+
+    public record MealBatchRequest(Long userId, List<Meal> items) {}
 }
@@ -20,6 +20,9 @@ public class UserController {
     @Autowired
     private com.calora.backend.repository.ActivityRepository activityRepository;
 
+    @Autowired
+    private com.calora.backend.repository.DailyRollupRepository dailyRollupRepository;
+
     @Autowired
     private com.calora.backend.repository.ExplorePostRepository explorePostRepository;
 
@@ -38,6 +41,27 @@ public class UserController {
     @Autowired
     private com.calora.backend.repository.ExploreMessageRepository exploreMessageRepository;
 
+    @Autowired
+    private com.calora.backend.repository.ExploreThreadRepository exploreThreadRepository;
+
+    @Autowired
+    private com.calora.backend.service.SocialStatsService socialStatsService;
+
+    @Autowired
+    private com.calora.backend.service.JournalArchiveService journalArchiveService;
+
+    @Autowired
+    private com.calora.backend.service.HomeTimelineService homeTimelineService;
+
+    @Autowired
+    private com.calora.backend.service.ExploreInteractionService exploreInteractionService;
+
+    @Autowired
+    private com.calora.backend.service.FollowGraph followGraph;
+
+    @Autowired
+    private com.calora.backend.service.UserSearchIndex userSearchIndex;
+
     @GetMapping
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -50,6 +74,9 @@ public class UserController {
                 .map(user -> {
                     mealRepository.deleteByUserId(id);
                     activityRepository.deleteByUserId(id);
+                    journalArchiveService.deleteByUserId(id);
+                    dailyRollupRepository.deleteByUserId(id);
+                    exploreInteractionService.removeUser(id);
                     java.util.List<com.calora.backend.model.ExplorePost> posts = explorePostRepository
                             .findByUserIdOrderByCreatedAtDesc(id);
                     for (com.calora.backend.model.ExplorePost post : posts) {
@@ -58,12 +85,17 @@ public class UserController {
                         exploreLikeRepository.deleteByPostId(postId);
                         exploreReactionRepository.deleteByPostId(postId);
                     }
+                    homeTimelineService.removeUser(id);
+                    followGraph.removeUser(id);
+                    userSearchIndex.remove(id);
                     exploreCommentRepository.deleteByUserId(id);
                     exploreLikeRepository.deleteByUserId(id);
                     exploreReactionRepository.deleteByUserId(id);
+                    socialStatsService.removeUser(id);
                     exploreFollowRepository.deleteByFollowerId(id);
                     exploreFollowRepository.deleteByFollowingId(id);
                     exploreMessageRepository.deleteByFromUserIdOrToUserId(id, id);
+                    exploreThreadRepository.deleteByUserIdOrCounterpartId(id, id);
                     explorePostRepository.deleteByUserId(id);
                     userRepository.delete(user);
                     return org.springframework.http.ResponseEntity.ok().build();
@@ -73,7 +105,10 @@ public class UserController {
 
     @PostMapping
     public User createUser(@RequestBody User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        socialStatsService.userCreated(saved.getId());
+        userSearchIndex.upsert(saved);
+        return saved;
     }
 
     @GetMapping("/{id}")
@@ -131,6 +166,7 @@ public class UserController {
                         user.setActivityLevel(userDetails.getActivityLevel());
 
                     User updatedUser = userRepository.save(user);
+                    userSearchIndex.upsert(updatedUser);
                     return org.springframework.http.ResponseEntity.ok(updatedUser);
                 })
                 .orElse(org.springframework.http.ResponseEntity.notFound().build());
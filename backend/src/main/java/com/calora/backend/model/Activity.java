@@ -16,7 +16,7 @@ public class Activity {
     private Integer caloriesBurned;
     private LocalDateTime date;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
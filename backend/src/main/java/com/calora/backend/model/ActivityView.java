@@ -0,0 +1,27 @@
+package com.calora.backend.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for activity listings: the activity's own columns plus the owner's id, without the
+ * owning {@link User} entity.
+ */
+public record ActivityView(
+        Long id,
+        String type,
+        Integer duration,
+        Integer caloriesBurned,
+        LocalDateTime date,
+        Long userId
+) {
+    public static ActivityView of(Activity activity) {
+        return new ActivityView(
+                activity.getId(),
+                activity.getType(),
+                activity.getDuration(),
+                activity.getCaloriesBurned(),
+                activity.getDate(),
+                activity.getUser() != null ? activity.getUser().getId() : null
+        );
+    }
+}
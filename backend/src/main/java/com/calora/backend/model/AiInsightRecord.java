@@ -0,0 +1,63 @@
+package com.calora.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A model-generated insight stored under the SHA-256 fingerprint of the request that produced it
+ * (model, instructions and prompt), so identical inputs are answered without calling the model.
+ */
+@Entity
+@Table(name = "ai_insights", indexes = {
+        @Index(name = "idx_ai_insights_created", columnList = "created_at")
+})
+public class AiInsightRecord {
+
+    @Id
+    @Column(length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    private String title;
+
+    @Column(length = 4000)
+    private String message;
+
+    @Column(name = "bullets", length = 4000)
+    private String bulletsJson;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public AiInsightRecord() {}
+
+    public AiInsightRecord(String fingerprint, String model, String title, String message, String bulletsJson,
+                           LocalDateTime createdAt) {
+        this.fingerprint = fingerprint;
+        this.model = model;
+        this.title = title;
+        this.message = message;
+        this.bulletsJson = bulletsJson;
+        this.createdAt = createdAt;
+    }
+
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getBulletsJson() { return bulletsJson; }
+    public void setBulletsJson(String bulletsJson) { this.bulletsJson = bulletsJson; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
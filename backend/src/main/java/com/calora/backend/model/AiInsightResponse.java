@@ -0,0 +1,51 @@
+package com.calora.backend.model;
+
+import java.util.List;
+
+public class AiInsightResponse {
+    private String title;
+    private String message;
+    private List<String> bullets;
+    private String generatedAt;
+    private String source;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<String> getBullets() {
+        return bullets;
+    }
+
+    public void setBullets(List<String> bullets) {
+        this.bullets = bullets;
+    }
+
+    public String getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(String generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+}
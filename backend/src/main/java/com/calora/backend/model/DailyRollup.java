@@ -0,0 +1,80 @@
+package com.calora.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_rollups", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "user_id", "date" })
+})
+public class DailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private Integer caloriesConsumed = 0;
+
+    @Column(nullable = false)
+    private Integer proteinConsumed = 0;
+
+    @Column(nullable = false)
+    private Integer carbsConsumed = 0;
+
+    @Column(nullable = false)
+    private Integer fatsConsumed = 0;
+
+    @Column(nullable = false)
+    private Integer caloriesBurned = 0;
+
+    @Column(nullable = false)
+    private Integer mealCount = 0;
+
+    @Column(nullable = false)
+    private Integer activityCount = 0;
+
+    public DailyRollup() {
+    }
+
+    public DailyRollup(Long userId, LocalDate date) {
+        this.userId = userId;
+        this.date = date;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public Integer getCaloriesConsumed() { return caloriesConsumed; }
+    public void setCaloriesConsumed(Integer caloriesConsumed) { this.caloriesConsumed = caloriesConsumed; }
+
+    public Integer getProteinConsumed() { return proteinConsumed; }
+    public void setProteinConsumed(Integer proteinConsumed) { this.proteinConsumed = proteinConsumed; }
+
+    public Integer getCarbsConsumed() { return carbsConsumed; }
+    public void setCarbsConsumed(Integer carbsConsumed) { this.carbsConsumed = carbsConsumed; }
+
+    public Integer getFatsConsumed() { return fatsConsumed; }
+    public void setFatsConsumed(Integer fatsConsumed) { this.fatsConsumed = fatsConsumed; }
+
+    public Integer getCaloriesBurned() { return caloriesBurned; }
+    public void setCaloriesBurned(Integer caloriesBurned) { this.caloriesBurned = caloriesBurned; }
+
+    public Integer getMealCount() { return mealCount; }
+    public void setMealCount(Integer mealCount) { this.mealCount = mealCount; }
+
+    public Integer getActivityCount() { return activityCount; }
+    public void setActivityCount(Integer activityCount) { this.activityCount = activityCount; }
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "explore_comments")
+@Table(name = "explore_comments", indexes = {
+        @Index(name = "idx_explore_comments_post_created", columnList = "post_id, created_at, id")
+})
 public class ExploreComment {
 
     @Id
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "explore_messages")
+@Table(name = "explore_messages", indexes = {
+        @Index(name = "idx_explore_messages_pair_created", columnList = "from_user_id, to_user_id, created_at, id")
+})
 public class ExploreMessage {
 
     @Id
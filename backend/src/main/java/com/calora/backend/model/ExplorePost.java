@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "explore_posts")
+@Table(name = "explore_posts", indexes = {
+        @Index(name = "idx_explore_posts_created", columnList = "created_at, id"),
+        @Index(name = "idx_explore_posts_user_created", columnList = "user_id, created_at, id")
+})
 public class ExplorePost {
 
     @Id
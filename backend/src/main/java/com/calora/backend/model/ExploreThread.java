@@ -0,0 +1,61 @@
+package com.calora.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "explore_threads", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "user_id", "counterpart_id" })
+}, indexes = {
+        @Index(name = "idx_explore_threads_user_last", columnList = "user_id, last_at, id")
+})
+public class ExploreThread {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "counterpart_id", nullable = false)
+    private Long counterpartId;
+
+    private Long lastMessageId;
+
+    @Column(length = 1000)
+    private String lastText;
+
+    private LocalDateTime lastAt;
+
+    @Column(nullable = false)
+    private Integer unreadCount = 0;
+
+    public ExploreThread() {}
+
+    public ExploreThread(Long userId, Long counterpartId) {
+        this.userId = userId;
+        this.counterpartId = counterpartId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getCounterpartId() { return counterpartId; }
+    public void setCounterpartId(Long counterpartId) { this.counterpartId = counterpartId; }
+
+    public Long getLastMessageId() { return lastMessageId; }
+    public void setLastMessageId(Long lastMessageId) { this.lastMessageId = lastMessageId; }
+
+    public String getLastText() { return lastText; }
+    public void setLastText(String lastText) { this.lastText = lastText; }
+
+    public LocalDateTime getLastAt() { return lastAt; }
+    public void setLastAt(LocalDateTime lastAt) { this.lastAt = lastAt; }
+
+    public Integer getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(Integer unreadCount) { this.unreadCount = unreadCount; }
+}
@@ -22,7 +22,7 @@ public class Meal {
     private String unit;
     private String source;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -0,0 +1,39 @@
+package com.calora.backend.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for meal listings: the meal's own columns plus the owner's id, without the owning
+ * {@link User} entity.
+ */
+public record MealView(
+        Long id,
+        String name,
+        Integer calories,
+        Integer protein,
+        Integer carbs,
+        Integer fats,
+        LocalDateTime date,
+        String mealType,
+        Double quantity,
+        String unit,
+        String source,
+        Long userId
+) {
+    public static MealView of(Meal meal) {
+        return new MealView(
+                meal.getId(),
+                meal.getName(),
+                meal.getCalories(),
+                meal.getProtein(),
+                meal.getCarbs(),
+                meal.getFats(),
+                meal.getDate(),
+                meal.getMealType(),
+                meal.getQuantity(),
+                meal.getUnit(),
+                meal.getSource(),
+                meal.getUser() != null ? meal.getUser().getId() : null
+        );
+    }
+}
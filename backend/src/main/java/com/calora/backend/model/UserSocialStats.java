@@ -0,0 +1,42 @@
+package com.calora.backend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "user_social_stats")
+public class UserSocialStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long followers = 0L;
+
+    @Column(nullable = false)
+    private Long following = 0L;
+
+    @Column(nullable = false)
+    private Long posts = 0L;
+
+    public UserSocialStats() {}
+
+    public UserSocialStats(Long userId, Long followers, Long following, Long posts) {
+        this.userId = userId;
+        this.followers = followers;
+        this.following = following;
+        this.posts = posts;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getFollowers() { return followers; }
+    public void setFollowers(Long followers) { this.followers = followers; }
+
+    public Long getFollowing() { return following; }
+    public void setFollowing(Long following) { this.following = following; }
+
+    public Long getPosts() { return posts; }
+    public void setPosts(Long posts) { this.posts = posts; }
+}
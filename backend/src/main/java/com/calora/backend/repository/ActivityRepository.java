@@ -1,11 +1,18 @@
 package com.calora.backend.repository;
 
 import com.calora.backend.model.Activity;
+import com.calora.backend.model.ActivityView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActivityRepository extends JpaRepository<Activity, Long> {
@@ -13,5 +20,38 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
 
     List<Activity> findByUserIdAndDateBetweenOrderByDateDesc(Long userId, LocalDateTime start, LocalDateTime end);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Activity> streamByUserIdAndDateBetweenOrderByDateDesc(Long userId, LocalDateTime start, LocalDateTime end);
+
+    List<Activity> findTop5ByUserIdAndDateIsNotNullOrderByDateDesc(Long userId);
+
+    String VIEW_SELECT = """
+        select new com.calora.backend.model.ActivityView(
+            a.id, a.type, a.duration, a.caloriesBurned, a.date, a.user.id)
+        from Activity a
+    """;
+
+    @Query(VIEW_SELECT + " order by a.id")
+    List<ActivityView> findAllViews();
+
+    @Query(VIEW_SELECT + " where a.user.id = :userId order by a.id")
+    List<ActivityView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query(VIEW_SELECT + " where a.user.id = :userId and a.date between :start and :end order by a.date desc")
+    List<ActivityView> findViewsByUserIdAndDateBetween(@Param("userId") Long userId,
+                                                       @Param("start") LocalDateTime start,
+                                                       @Param("end") LocalDateTime end);
+
     void deleteByUserId(Long userId);
+
+    @Query("""
+        select a.user.id, cast(a.date as LocalDate), sum(coalesce(a.caloriesBurned, 0)), count(a)
+        from Activity a
+        where a.date is not null
+        group by a.user.id, cast(a.date as LocalDate)
+    """)
+    List<Object[]> sumByUserAndDay();
 }
@@ -0,0 +1,18 @@
+package com.calora.backend.repository;
+
+import com.calora.backend.model.AiInsightRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AiInsightRecordRepository extends JpaRepository<AiInsightRecord, String> {
+
+    @Modifying
+    @Query("delete from AiInsightRecord r where r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
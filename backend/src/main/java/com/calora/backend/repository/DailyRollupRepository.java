@@ -0,0 +1,46 @@
+package com.calora.backend.repository;
+
+import com.calora.backend.model.DailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+    List<DailyRollup> findByUserIdAndDateBetweenOrderByDateAsc(Long userId, LocalDate start, LocalDate end);
+
+    Optional<DailyRollup> findFirstByUserIdAndMealCountGreaterThanOrderByDateDesc(Long userId, Integer mealCount);
+
+    @Query("select distinct r.userId from DailyRollup r where r.date >= :since order by r.userId")
+    List<Long> findActiveUserIdsSince(@Param("since") LocalDate since);
+
+    @Modifying
+    @Query("""
+        update DailyRollup r
+        set r.caloriesConsumed = r.caloriesConsumed + :calories,
+            r.proteinConsumed = r.proteinConsumed + :protein,
+            r.carbsConsumed = r.carbsConsumed + :carbs,
+            r.fatsConsumed = r.fatsConsumed + :fats,
+            r.caloriesBurned = r.caloriesBurned + :burned,
+            r.mealCount = r.mealCount + :meals,
+            r.activityCount = r.activityCount + :activities
+        where r.userId = :userId and r.date = :date
+    """)
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("date") LocalDate date,
+                   @Param("calories") int calories,
+                   @Param("protein") int protein,
+                   @Param("carbs") int carbs,
+                   @Param("fats") int fats,
+                   @Param("burned") int burned,
+                   @Param("meals") int meals,
+                   @Param("activities") int activities);
+
+    void deleteByUserId(Long userId);
+}
@@ -1,16 +1,59 @@
 package com.calora.backend.repository;
 
 import com.calora.backend.model.ExploreComment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ExploreCommentRepository extends JpaRepository<ExploreComment, Long> {
-    List<ExploreComment> findByPostIdOrderByCreatedAtAsc(Long postId);
+    @Query("""
+        select c.id as id, c.post.id as postId, c.user.id as userId, c.text as text, c.createdAt as createdAt
+        from ExploreComment c
+        where c.post.id in :postIds
+        order by c.createdAt asc, c.id asc
+    """)
+    List<PostCommentRef> findRefsByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @Query("""
+        select c.id as id, c.post.id as postId, c.user.id as userId, c.text as text, c.createdAt as createdAt
+        from ExploreComment c
+        where c.post.id = :postId
+        order by c.createdAt asc, c.id asc
+    """)
+    List<PostCommentRef> findFirstPage(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("""
+        select c.id as id, c.post.id as postId, c.user.id as userId, c.text as text, c.createdAt as createdAt
+        from ExploreComment c
+        where c.post.id = :postId
+          and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id))
+        order by c.createdAt asc, c.id asc
+    """)
+    List<PostCommentRef> findPageAfter(@Param("postId") Long postId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
 
     void deleteByPostId(Long postId);
 
     void deleteByUserId(Long userId);
+
+    interface PostCommentRef {
+        Long getId();
+
+        Long getPostId();
+
+        Long getUserId();
+
+        String getText();
+
+        LocalDateTime getCreatedAt();
+    }
 }
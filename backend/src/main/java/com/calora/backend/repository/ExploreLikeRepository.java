@@ -2,18 +2,28 @@ package com.calora.backend.repository;
 
 import com.calora.backend.model.ExploreLike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ExploreLikeRepository extends JpaRepository<ExploreLike, Long> {
-    List<ExploreLike> findByPostId(Long postId);
+    @Query("select l.post.id as postId, l.user.id as userId from ExploreLike l where l.post.id in :postIds order by l.id asc")
+    List<PostLikeRef> findRefsByPostIdIn(@Param("postIds") Collection<Long> postIds);
 
     Optional<ExploreLike> findByPostIdAndUserId(Long postId, Long userId);
 
     void deleteByPostId(Long postId);
 
     void deleteByUserId(Long userId);
+
+    interface PostLikeRef {
+        Long getPostId();
+
+        Long getUserId();
+    }
 }
@@ -1,25 +1,40 @@
 package com.calora.backend.repository;
 
 import com.calora.backend.model.ExploreMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ExploreMessageRepository extends JpaRepository<ExploreMessage, Long> {
 
+    // One direction of a conversation, newest first: a single ordered seek on
+    // idx_explore_messages_pair_created (from_user_id, to_user_id, created_at, id).
     @Query("""
         select m from ExploreMessage m
-        where (m.fromUser.id = :userId and m.toUser.id = :withId)
-           or (m.fromUser.id = :withId and m.toUser.id = :userId)
-        order by m.createdAt asc
+        where m.fromUser.id = :fromId and m.toUser.id = :toId
+        order by m.createdAt desc, m.id desc
     """)
-    List<ExploreMessage> findConversation(@Param("userId") Long userId, @Param("withId") Long withId);
+    List<ExploreMessage> findLatestSentPage(@Param("fromId") Long fromId,
+                                            @Param("toId") Long toId,
+                                            Pageable pageable);
 
-    void deleteByFromUserIdOrToUserId(Long fromUserId, Long toUserId);
+    @Query("""
+        select m from ExploreMessage m
+        where m.fromUser.id = :fromId and m.toUser.id = :toId
+          and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id))
+        order by m.createdAt desc, m.id desc
+    """)
+    List<ExploreMessage> findSentPageBefore(@Param("fromId") Long fromId,
+                                            @Param("toId") Long toId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
 
-    List<ExploreMessage> findByFromUserIdOrToUserIdOrderByCreatedAtDesc(Long fromUserId, Long toUserId);
+    void deleteByFromUserIdOrToUserId(Long fromUserId, Long toUserId);
 }
@@ -1,17 +1,52 @@
 package com.calora.backend.repository;
 
 import com.calora.backend.model.ExplorePost;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ExplorePostRepository extends JpaRepository<ExplorePost, Long> {
-    List<ExplorePost> findAllByOrderByCreatedAtDesc();
-
     List<ExplorePost> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    @EntityGraph(attributePaths = "user")
+    List<ExplorePost> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+        select p from ExplorePost p
+        where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)
+        order by p.createdAt desc, p.id desc
+    """)
+    List<ExplorePost> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    List<ExplorePost> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+        select p from ExplorePost p
+        where p.user.id = :userId
+          and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id))
+        order by p.createdAt desc, p.id desc
+    """)
+    List<ExplorePost> findUserPageBefore(@Param("userId") Long userId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    List<ExplorePost> findByIdIn(Collection<Long> ids);
+
     long countByUserId(Long userId);
 
     long countByUserIdIn(List<Long> userIds);
@@ -2,18 +2,35 @@ package com.calora.backend.repository;
 
 import com.calora.backend.model.ExploreReaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ExploreReactionRepository extends JpaRepository<ExploreReaction, Long> {
-    List<ExploreReaction> findByPostId(Long postId);
+    @Query("""
+        select r.post.id as postId, r.user.id as userId, r.emoji as emoji
+        from ExploreReaction r
+        where r.post.id in :postIds
+        order by r.id asc
+    """)
+    List<PostReactionRef> findRefsByPostIdIn(@Param("postIds") Collection<Long> postIds);
 
     Optional<ExploreReaction> findByPostIdAndUserId(Long postId, Long userId);
 
     void deleteByPostId(Long postId);
 
     void deleteByUserId(Long userId);
+
+    interface PostReactionRef {
+        Long getPostId();
+
+        Long getUserId();
+
+        String getEmoji();
+    }
 }
@@ -0,0 +1,58 @@
+package com.calora.backend.repository;
+
+import com.calora.backend.model.ExploreThread;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ExploreThreadRepository extends JpaRepository<ExploreThread, Long> {
+    List<ExploreThread> findByUserIdOrderByLastAtDescIdDesc(Long userId, Pageable pageable);
+
+    @Query("""
+        select t from ExploreThread t
+        where t.userId = :userId
+          and (t.lastAt < :lastAt or (t.lastAt = :lastAt and t.id < :id))
+        order by t.lastAt desc, t.id desc
+    """)
+    List<ExploreThread> findPageBefore(@Param("userId") Long userId,
+                                       @Param("lastAt") LocalDateTime lastAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    // Concurrent sends may apply out of order: the preview only moves forward (by created_at, then
+    // id), while the unread count takes every message.
+    @Modifying
+    @Query("""
+        update ExploreThread t
+        set t.lastMessageId = case when t.lastAt is null or t.lastAt < :lastAt
+                                        or (t.lastAt = :lastAt and t.lastMessageId < :messageId)
+                                   then :messageId else t.lastMessageId end,
+            t.lastText = case when t.lastAt is null or t.lastAt < :lastAt
+                                   or (t.lastAt = :lastAt and t.lastMessageId < :messageId)
+                              then :text else t.lastText end,
+            t.lastAt = case when t.lastAt is null or t.lastAt < :lastAt
+                                 or (t.lastAt = :lastAt and t.lastMessageId < :messageId)
+                            then :lastAt else t.lastAt end,
+            t.unreadCount = t.unreadCount + :unread
+        where t.userId = :userId and t.counterpartId = :counterpartId
+    """)
+    int applyMessage(@Param("userId") Long userId,
+                     @Param("counterpartId") Long counterpartId,
+                     @Param("messageId") Long messageId,
+                     @Param("text") String text,
+                     @Param("lastAt") LocalDateTime lastAt,
+                     @Param("unread") int unread);
+
+    @Modifying
+    @Query("update ExploreThread t set t.unreadCount = 0 where t.userId = :userId and t.counterpartId = :counterpartId")
+    int markRead(@Param("userId") Long userId, @Param("counterpartId") Long counterpartId);
+
+    void deleteByUserIdOrCounterpartId(Long userId, Long counterpartId);
+}
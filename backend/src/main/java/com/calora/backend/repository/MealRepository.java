@@ -1,11 +1,18 @@
 package com.calora.backend.repository;
 
 import com.calora.backend.model.Meal;
+import com.calora.backend.model.MealView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MealRepository extends JpaRepository<Meal, Long> {
@@ -13,5 +20,39 @@ public interface MealRepository extends JpaRepository<Meal, Long> {
 
     List<Meal> findByUserIdAndDateBetweenOrderByDateDesc(Long userId, LocalDateTime start, LocalDateTime end);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Meal> streamByUserIdAndDateBetweenOrderByDateDesc(Long userId, LocalDateTime start, LocalDateTime end);
+
+    String VIEW_SELECT = """
+        select new com.calora.backend.model.MealView(
+            m.id, m.name, m.calories, m.protein, m.carbs, m.fats, m.date,
+            m.mealType, m.quantity, m.unit, m.source, m.user.id)
+        from Meal m
+    """;
+
+    @Query(VIEW_SELECT + " order by m.id")
+    List<MealView> findAllViews();
+
+    @Query(VIEW_SELECT + " where m.user.id = :userId order by m.id")
+    List<MealView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query(VIEW_SELECT + " where m.user.id = :userId and m.date between :start and :end order by m.date desc")
+    List<MealView> findViewsByUserIdAndDateBetween(@Param("userId") Long userId,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end);
+
     void deleteByUserId(Long userId);
+
+    @Query("""
+        select m.user.id, cast(m.date as LocalDate),
+               sum(coalesce(m.calories, 0)), sum(coalesce(m.protein, 0)),
+               sum(coalesce(m.carbs, 0)), sum(coalesce(m.fats, 0)), count(m)
+        from Meal m
+        where m.date is not null
+        group by m.user.id, cast(m.date as LocalDate)
+    """)
+    List<Object[]> sumByUserAndDay();
 }
@@ -0,0 +1,38 @@
+package com.calora.backend.repository;
+
+import com.calora.backend.model.UserSocialStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserSocialStatsRepository extends JpaRepository<UserSocialStats, Long> {
+
+    @Modifying
+    @Query("update UserSocialStats s set s.followers = s.followers + :delta where s.userId = :userId")
+    int addFollowers(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("update UserSocialStats s set s.following = s.following + :delta where s.userId = :userId")
+    int addFollowing(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("update UserSocialStats s set s.posts = s.posts + :delta where s.userId = :userId")
+    int addPosts(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("""
+        update UserSocialStats s set s.following = s.following - 1
+        where s.userId in (select f.follower.id from ExploreFollow f where f.following.id = :userId)
+    """)
+    int decrementFollowingOfFollowers(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("""
+        update UserSocialStats s set s.followers = s.followers - 1
+        where s.userId in (select f.following.id from ExploreFollow f where f.follower.id = :userId)
+    """)
+    int decrementFollowersOfFollowing(@Param("userId") Long userId);
+}
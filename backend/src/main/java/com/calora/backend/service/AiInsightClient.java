@@ -0,0 +1,254 @@
+package com.calora.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking client for the model's responses endpoint. Calls go out with {@code sendAsync}, so
+ * no request thread waits on the upstream, and are guarded three ways: a deadline per call, a
+ * bulkhead that rejects calls beyond {@code calora.ai.max-concurrent-calls} instead of queueing
+ * them, and a circuit breaker that fails fast for {@code calora.ai.circuit.open-ms} after
+ * {@code calora.ai.circuit.failure-threshold} consecutive failures, then lets one probe through.
+ * Every rejection surfaces as an {@link UnavailableException} on the returned future.
+ *
+ * <p>A permit is held for as long as the HTTP exchange runs, not just until the caller gets an
+ * answer: when the deadline passes the exchange is cancelled, and the permit is returned once it
+ * has actually stopped.
+ */
+@Service
+public class AiInsightClient {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final URI endpoint;
+    private final String apiKey;
+    private final Duration requestTimeout;
+    private final int maxOutputTokens;
+    private final HttpClient httpClient;
+    private final Semaphore permits;
+    private final int maxConcurrentCalls;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong shortCircuited = new AtomicLong();
+
+    public AiInsightClient(@Value("${calora.ai.base-url:https://api.openai.com/v1}") String baseUrl,
+                           @Value("${calora.ai.api-key:${OPENAI_API_KEY:}}") String apiKey,
+                           @Value("${calora.ai.connect-timeout-ms:2000}") long connectTimeoutMs,
+                           @Value("${calora.ai.request-timeout-ms:10000}") long requestTimeoutMs,
+                           @Value("${calora.ai.max-output-tokens:250}") int maxOutputTokens,
+                           @Value("${calora.ai.max-concurrent-calls:16}") int maxConcurrentCalls,
+                           @Value("${calora.ai.circuit.failure-threshold:5}") int failureThreshold,
+                           @Value("${calora.ai.circuit.open-ms:30000}") long openMs) {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.endpoint = URI.create(base + "/responses");
+        this.apiKey = apiKey;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxOutputTokens = maxOutputTokens;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.maxConcurrentCalls = Math.max(1, maxConcurrentCalls);
+        this.permits = new Semaphore(this.maxConcurrentCalls);
+        this.circuitBreaker = new CircuitBreaker(Math.max(1, failureThreshold), Duration.ofMillis(openMs));
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    /** Sends the prompt and completes with the model's output text. */
+    public CompletableFuture<String> fetchOutputText(String model, String instructions, String prompt) {
+        if (!isConfigured()) {
+            return CompletableFuture.failedFuture(new UnavailableException("no API key configured"));
+        }
+        if (!circuitBreaker.allowRequest()) {
+            shortCircuited.incrementAndGet();
+            return CompletableFuture.failedFuture(new UnavailableException("circuit open"));
+        }
+        if (!permits.tryAcquire()) {
+            rejected.incrementAndGet();
+            circuitBreaker.release();
+            return CompletableFuture.failedFuture(new UnavailableException("too many concurrent calls"));
+        }
+
+        HttpRequest request;
+        try {
+            ObjectNode payload = objectMapper.createObjectNode();
+            payload.put("model", model);
+            payload.put("input", prompt);
+            payload.put("instructions", instructions);
+            payload.put("max_output_tokens", maxOutputTokens);
+            request = HttpRequest.newBuilder()
+                    .uri(endpoint)
+                    .timeout(requestTimeout)
+                    .header("Authorization", "Bearer " + apiKey)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(payload)))
+                    .build();
+        } catch (IOException e) {
+            permits.release();
+            circuitBreaker.release();
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        }
+
+        calls.incrementAndGet();
+        CompletableFuture<HttpResponse<String>> exchange =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        // The deadline below completes this future, never the exchange, so the permit always comes
+        // back when the exchange ends, and before the caller sees a normal result.
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        exchange.whenComplete((response, error) -> {
+            permits.release();
+            if (error == null) {
+                result.complete(response);
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        return result
+                // The request timeout only covers the response headers; this bounds the body too.
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(response -> {
+                    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                        throw new UnavailableException("upstream returned " + response.statusCode());
+                    }
+                    return extractOutputText(response.body());
+                })
+                .whenComplete((text, error) -> {
+                    if (error != null) {
+                        // Aborts the exchange if it is still running, e.g. after the deadline passed.
+                        exchange.cancel(true);
+                    }
+                    if (error == null) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        failures.incrementAndGet();
+                        circuitBreaker.onFailure();
+                    }
+                });
+    }
+
+    public Stats stats() {
+        return new Stats(circuitBreaker.state(), permits.availablePermits(), maxConcurrentCalls,
+                calls.get(), failures.get(), rejected.get(), shortCircuited.get());
+    }
+
+    private String extractOutputText(String responseBody) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(responseBody);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        JsonNode output = root.get("output");
+        if (output != null && output.isArray()) {
+            StringBuilder builder = new StringBuilder();
+            for (JsonNode item : output) {
+                JsonNode content = item.get("content");
+                if (content != null && content.isArray()) {
+                    for (JsonNode contentItem : content) {
+                        String text = contentItem.path("text").asText(null);
+                        if (text != null && !text.isBlank()) {
+                            if (builder.length() > 0) {
+                                builder.append("\n");
+                            }
+                            builder.append(text);
+                        }
+                    }
+                }
+            }
+            return builder.toString().trim();
+        }
+        return "";
+    }
+
+    /**
+     * Consecutive-failure breaker. While open every call is refused; once the open period has
+     * passed a single probe is let through, and its outcome closes or re-opens the circuit.
+     */
+    private static final class CircuitBreaker {
+        private final int failureThreshold;
+        private final long openNanos;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicBoolean probeInFlight = new AtomicBoolean();
+        private volatile long openedAt;
+        private volatile boolean open;
+
+        CircuitBreaker(int failureThreshold, Duration openDuration) {
+            this.failureThreshold = failureThreshold;
+            this.openNanos = openDuration.toNanos();
+        }
+
+        boolean allowRequest() {
+            if (!open) {
+                return true;
+            }
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            return probeInFlight.compareAndSet(false, true);
+        }
+
+        /** Gives back a probe slot that was granted but not used. */
+        void release() {
+            probeInFlight.set(false);
+        }
+
+        void onSuccess() {
+            consecutiveFailures.set(0);
+            open = false;
+            probeInFlight.set(false);
+        }
+
+        void onFailure() {
+            if (probeInFlight.get() || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                openedAt = System.nanoTime();
+                open = true;
+                probeInFlight.set(false);
+            }
+        }
+
+        String state() {
+            if (!open) return "CLOSED";
+            return System.nanoTime() - openedAt < openNanos ? "OPEN" : "HALF_OPEN";
+        }
+    }
+
+    /** The call was not made or did not produce a usable answer. */
+    public static class UnavailableException extends RuntimeException {
+        public UnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    public record Stats(
+            String circuitState,
+            int availablePermits,
+            int maxConcurrentCalls,
+            long calls,
+            long failures,
+            long rejected,
+            long shortCircuited
+    ) {}
+}
@@ -0,0 +1,114 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.User;
+import com.calora.backend.repository.DailyRollupRepository;
+import com.calora.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Generates insights overnight for every user with a rollup in the last
+ * {@code calora.ai.precompute.active-days} days, so the first dashboard visit of the day is served
+ * from the insight store instead of waiting on the model. Users whose inputs already have a stored
+ * insight cost no call; the rest are generated one at a time, paced by a token bucket to stay under
+ * the upstream rate limit. The run stops early if the circuit breaker opens.
+ */
+@Service
+public class AiInsightPrecomputer {
+
+    private static final int USER_PAGE_SIZE = 500;
+
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AiInsightService aiInsightService;
+
+    @Autowired
+    private AiInsightClient aiInsightClient;
+
+    @Value("${calora.ai.precompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${calora.ai.precompute.active-days:7}")
+    private int activeDays;
+
+    @Value("${calora.ai.precompute.calls-per-minute:60}")
+    private int callsPerMinute;
+
+    @Value("${calora.ai.precompute.burst:5}")
+    private int burst;
+
+    @Scheduled(cron = "${calora.ai.precompute.cron:0 0 2 * * *}")
+    public void precomputeOnSchedule() {
+        if (enabled) {
+            precompute();
+        }
+    }
+
+    public PrecomputeRun precompute() {
+        long started = System.nanoTime();
+        if (!aiInsightClient.isConfigured()) {
+            return new PrecomputeRun(0, 0, 0, 0, false, 0);
+        }
+
+        List<Long> userIds = dailyRollupRepository.findActiveUserIdsSince(LocalDate.now().minusDays(Math.max(1, activeDays) - 1L));
+        TokenBucket rateLimit = new TokenBucket(Math.max(1, burst), Math.max(1, callsPerMinute) / 60.0);
+        int alreadyStored = 0;
+        int generated = 0;
+        int failed = 0;
+        boolean stoppedEarly = false;
+
+        pages:
+        for (int from = 0; from < userIds.size(); from += USER_PAGE_SIZE) {
+            List<Long> page = userIds.subList(from, Math.min(userIds.size(), from + USER_PAGE_SIZE));
+            for (User user : userRepository.findAllById(page)) {
+                AiInsightService.PreparedInsight prepared = aiInsightService.prepare(user);
+                if (aiInsightService.fromStore(prepared) != null) {
+                    alreadyStored++;
+                    continue;
+                }
+
+                try {
+                    rateLimit.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    stoppedEarly = true;
+                    break pages;
+                }
+
+                try {
+                    aiInsightService.generate(prepared).join();
+                    generated++;
+                } catch (CompletionException e) {
+                    failed++;
+                    if ("OPEN".equals(aiInsightClient.stats().circuitState())) {
+                        stoppedEarly = true;
+                        break pages;
+                    }
+                }
+            }
+        }
+
+        return new PrecomputeRun(userIds.size(), alreadyStored, generated, failed, stoppedEarly,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public record PrecomputeRun(
+            int activeUsers,
+            int alreadyStored,
+            int generated,
+            int failed,
+            boolean stoppedEarly,
+            long millis
+    ) {}
+}
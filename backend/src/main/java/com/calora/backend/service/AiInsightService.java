@@ -0,0 +1,305 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.Activity;
+import com.calora.backend.model.AiInsightResponse;
+import com.calora.backend.model.Meal;
+import com.calora.backend.model.User;
+import com.calora.backend.repository.ActivityRepository;
+import com.calora.backend.repository.MealRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Produces a user's weekly insight. The last 7 days are aggregated into a prompt, which is answered
+ * from the per-user cache, then the content-addressed {@link AiInsightStore}, and only then by the
+ * model through {@link AiInsightClient}. Used by the insights endpoint and by the overnight
+ * {@link AiInsightPrecomputer}, which fills the store and the cache ahead of the day's traffic.
+ */
+@Service
+public class AiInsightService {
+
+    private static final String INSTRUCTIONS =
+            "You are a friendly wellness coach. Provide concise, non-medical guidance. " +
+                    "Return JSON only with keys: title (string), message (string), bullets (array of strings).";
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private AiInsightStore aiInsightStore;
+
+    @Autowired
+    private AiInsightClient aiInsightClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BoundedCache<Long, AiInsightResponse> cache;
+    // Concurrent misses for the same user share the first request's computation instead of
+    // each calling the model API.
+    private final Map<Long, CompletableFuture<AiInsightResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+
+    public AiInsightService(@Value("${calora.ai.cache.max-entries:10000}") int maxEntries,
+                            @Value("${calora.ai.cache.ttl-hours:24}") long ttlHours) {
+        this.cache = new BoundedCache<>(maxEntries, Duration.ofHours(ttlHours));
+    }
+
+    /** The user's insight; never fails, falling back to a placeholder insight when the model is unavailable. */
+    public CompletableFuture<AiInsightResponse> getInsight(User user) {
+        Long userId = user.getId();
+        AiInsightResponse cached = cache.get(userId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<AiInsightResponse> computation = new CompletableFuture<>();
+        CompletableFuture<AiInsightResponse> running = inFlight.putIfAbsent(userId, computation);
+        if (running != null) {
+            coalescedRequests.incrementAndGet();
+            return running;
+        }
+
+        CompletableFuture<AiInsightResponse> result;
+        try {
+            result = compute(user);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((insight, error) -> {
+            inFlight.remove(userId, computation);
+            if (error != null) {
+                computation.completeExceptionally(error);
+            } else {
+                computation.complete(insight);
+            }
+        });
+        return computation;
+    }
+
+    /** Aggregates the user's last 7 days into the prompt and its store fingerprint. */
+    public PreparedInsight prepare(User user) {
+        Long userId = user.getId();
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(6);
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay().minusNanos(1);
+
+        List<Meal> meals = mealRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, startDateTime, endDateTime);
+        List<Activity> activities = activityRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, startDateTime, endDateTime);
+
+        int dailyTarget = user.getDailyCalorieTarget() != null ? user.getDailyCalorieTarget() : 2200;
+
+        DailyAggregator window = DailyAggregator.between(startDate, endDate);
+        for (Meal meal : meals) {
+            window.addMeal(meal);
+        }
+
+        Map<String, Integer> activityCounts = new HashMap<>();
+        for (Activity activity : activities) {
+            if (activity.getDate() == null) {
+                continue;
+            }
+            window.addActivity(activity);
+            String type = activity.getType() != null ? activity.getType() : "Activity";
+            activityCounts.put(type, activityCounts.getOrDefault(type, 0) + 1);
+        }
+
+        DailyAggregator.Totals totals = window.totals(dailyTarget);
+        int daysLoggedMeals = totals.daysWithMeals();
+        int daysLoggedActivity = totals.daysWithActivity();
+        int daysOverTarget = totals.daysOverTarget();
+
+        int avgCalories = Math.round(totals.consumed() / 7.0f);
+        int avgBurned = Math.round(totals.burned() / 7.0f);
+        int avgProtein = Math.round(totals.protein() / 7.0f);
+        int avgCarbs = Math.round(totals.carbs() / 7.0f);
+        int avgFats = Math.round(totals.fats() / 7.0f);
+
+        String topActivity = activityCounts.entrySet().stream()
+                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse("None");
+
+        String prompt = buildPrompt(user, dailyTarget, avgCalories, avgBurned, avgProtein, avgCarbs, avgFats,
+                daysOverTarget, daysLoggedMeals, daysLoggedActivity, topActivity);
+
+        String model = Optional.ofNullable(System.getenv("OPENAI_MODEL")).filter(s -> !s.isBlank()).orElse("gpt-5");
+
+        // The prompt is built only from these aggregates, so the same inputs get the same insight.
+        return new PreparedInsight(userId, model, prompt, aiInsightStore.fingerprint(model, INSTRUCTIONS, prompt));
+    }
+
+    /** Answers from the insight store and caches the result for the user, or returns null. */
+    public AiInsightResponse fromStore(PreparedInsight prepared) {
+        Optional<AiInsightStore.StoredInsight> stored = aiInsightStore.find(prepared.fingerprint());
+        if (stored.isEmpty()) {
+            return null;
+        }
+        AiInsightResponse insight = toResponse(stored.get());
+        cache.put(prepared.userId(), insight);
+        return insight;
+    }
+
+    /**
+     * Asks the model, then stores and caches the answer. Fails with
+     * {@link AiInsightClient.UnavailableException} when the call is refused or does not succeed.
+     */
+    public CompletableFuture<AiInsightResponse> generate(PreparedInsight prepared) {
+        return aiInsightClient.fetchOutputText(prepared.model(), INSTRUCTIONS, prepared.prompt())
+                .thenApply(outputText -> {
+                    AiInsightResponse parsed = parseInsight(outputText);
+                    AiInsightResponse insight = toResponse(aiInsightStore.save(prepared.fingerprint(), prepared.model(),
+                            parsed.getTitle(), parsed.getMessage(), parsed.getBullets()));
+                    cache.put(prepared.userId(), insight);
+                    return insight;
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${calora.ai.cache.cleanup-interval-ms:600000}")
+    public void evictExpiredInsights() {
+        cache.evictExpired();
+    }
+
+    public Stats stats() {
+        return new Stats(cache.stats(), aiInsightStore.stats(), aiInsightClient.stats(),
+                inFlight.size(), coalescedRequests.get());
+    }
+
+    private CompletableFuture<AiInsightResponse> compute(User user) {
+        PreparedInsight prepared = prepare(user);
+        AiInsightResponse stored = fromStore(prepared);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored);
+        }
+        if (!aiInsightClient.isConfigured()) {
+            return CompletableFuture.completedFuture(fallbackInsight("AI insights are unavailable right now."));
+        }
+        return generate(prepared)
+                .exceptionally(error -> fallbackInsight("AI insights are temporarily unavailable."));
+    }
+
+    private String buildPrompt(User user,
+                               int dailyTarget,
+                               int avgCalories,
+                               int avgBurned,
+                               int avgProtein,
+                               int avgCarbs,
+                               int avgFats,
+                               int daysOverTarget,
+                               int daysLoggedMeals,
+                               int daysLoggedActivity,
+                               String topActivity) {
+        String goal = user.getGoal() != null ? user.getGoal() : "Not set";
+        String weight = user.getWeight() != null ? String.format("%.1f", user.getWeight()) : "Unknown";
+
+        return "User goal: " + goal + ". " +
+                "Current weight (kg): " + weight + ". " +
+                "Daily calorie target: " + dailyTarget + " kcal. " +
+                "Last 7 days averages: " +
+                avgCalories + " kcal consumed/day, " +
+                avgBurned + " kcal burned/day, " +
+                avgProtein + "g protein/day, " +
+                avgCarbs + "g carbs/day, " +
+                avgFats + "g fats/day. " +
+                "Days over target: " + daysOverTarget + ". " +
+                "Days with meals logged: " + daysLoggedMeals + ". " +
+                "Days with activity logged: " + daysLoggedActivity + ". " +
+                "Most frequent activity: " + topActivity + ". " +
+                "Provide a concise insight with 1 short message and 2-3 bullet tips.";
+    }
+
+    private AiInsightResponse parseInsight(String outputText) {
+        AiInsightResponse response = new AiInsightResponse();
+        response.setTitle("AI Insight");
+        response.setBullets(Collections.emptyList());
+
+        if (outputText == null || outputText.isBlank()) {
+            response.setMessage("No insights available yet.");
+            return response;
+        }
+
+        String trimmed = outputText.trim();
+        try {
+            JsonNode node = objectMapper.readTree(trimmed);
+            if (node.isObject()) {
+                String title = textOrNull(node.get("title"));
+                String message = textOrNull(node.get("message"));
+                List<String> bullets = new ArrayList<>();
+                JsonNode bulletsNode = node.get("bullets");
+                if (bulletsNode != null && bulletsNode.isArray()) {
+                    for (JsonNode item : bulletsNode) {
+                        String value = item.asText();
+                        if (!value.isBlank()) {
+                            bullets.add(value.trim());
+                        }
+                    }
+                }
+                if (title != null && !title.isBlank()) {
+                    response.setTitle(title);
+                }
+                response.setMessage(message != null ? message : trimmed);
+                response.setBullets(bullets);
+                return response;
+            }
+        } catch (Exception ignored) {
+        }
+
+        response.setMessage(trimmed);
+        return response;
+    }
+
+    private String textOrNull(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        String value = node.asText();
+        return value != null ? value.trim() : null;
+    }
+
+    private AiInsightResponse toResponse(AiInsightStore.StoredInsight stored) {
+        AiInsightResponse response = new AiInsightResponse();
+        response.setTitle(stored.title());
+        response.setMessage(stored.message());
+        response.setBullets(stored.bullets());
+        response.setGeneratedAt(stored.createdAt().atZone(ZoneId.systemDefault()).toInstant().toString());
+        response.setSource("openai");
+        return response;
+    }
+
+    private AiInsightResponse fallbackInsight(String message) {
+        AiInsightResponse response = new AiInsightResponse();
+        response.setTitle("AI Insight");
+        response.setMessage(message);
+        response.setBullets(Collections.emptyList());
+        response.setGeneratedAt(Instant.now().toString());
+        response.setSource("fallback");
+        return response;
+    }
+
+    public record PreparedInsight(Long userId, String model, String prompt, String fingerprint) {}
+
+    public record Stats(
+            BoundedCache.Stats cache,
+            AiInsightStore.Stats store,
+            AiInsightClient.Stats upstream,
+            int inFlight,
+            long coalescedRequests
+    ) {}
+}
@@ -0,0 +1,178 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.AiInsightRecord;
+import com.calora.backend.repository.AiInsightRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed store for model-generated insights. An insight is filed under the SHA-256 of
+ * the model, instructions and prompt that produced it; since the prompt only carries the user's
+ * goal, weight, target and 7-day averages, any later request with the same inputs, from the same
+ * user on another day or from a different user, is answered from here instead of by the model.
+ * Hot fingerprints are also kept in memory in front of {@code ai_insights}.
+ *
+ * <p>Rows are written with a plain insert rather than {@code save}, which would merge an assigned
+ * id: a concurrent request storing the same fingerprint then loses on the primary key and keeps
+ * the other copy. Text is cut to the column widths before it is stored or cached, so a long model
+ * answer is shortened rather than rejected.
+ */
+@Service
+public class AiInsightStore {
+
+    private static final int MAX_MODEL_LENGTH = 100;
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_TEXT_LENGTH = 4000;
+
+    private static final String INSERT_INSIGHT = """
+        insert into ai_insights (fingerprint, model, title, message, bullets, created_at)
+        values (?, ?, ?, ?, ?, ?)
+    """;
+
+    // An expired row that has not been purged yet would otherwise shadow the new answer.
+    private static final String REPLACE_EXPIRED = """
+        update ai_insights
+        set model = ?, title = ?, message = ?, bullets = ?, created_at = ?
+        where fingerprint = ? and created_at < ?
+    """;
+
+    @Autowired
+    private AiInsightRecordRepository aiInsightRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UniqueInserts uniqueInserts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Duration retention;
+    private final BoundedCache<String, StoredInsight> cache;
+    private final AtomicLong modelCallsAvoided = new AtomicLong();
+    private final AtomicLong storeMisses = new AtomicLong();
+
+    public AiInsightStore(@Value("${calora.ai.store.retention-days:30}") long retentionDays,
+                          @Value("${calora.ai.store.cache.max-entries:5000}") int maxEntries) {
+        this.retention = Duration.ofDays(retentionDays);
+        this.cache = new BoundedCache<>(maxEntries, retention);
+    }
+
+    public String fingerprint(String model, String instructions, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(instructions.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Looks up an insight by fingerprint; a hit counts as an avoided model call. */
+    public Optional<StoredInsight> find(String fingerprint) {
+        StoredInsight stored = cache.get(fingerprint);
+        if (stored == null) {
+            stored = aiInsightRecordRepository.findById(fingerprint)
+                    .filter(record -> record.getCreatedAt().isAfter(LocalDateTime.now().minus(retention)))
+                    .map(this::toStoredInsight)
+                    .orElse(null);
+            if (stored != null) {
+                cache.put(fingerprint, stored);
+            }
+        }
+        if (stored == null) {
+            storeMisses.incrementAndGet();
+            return Optional.empty();
+        }
+        modelCallsAvoided.incrementAndGet();
+        return Optional.of(stored);
+    }
+
+    public StoredInsight save(String fingerprint, String model, String title, String message, List<String> bullets) {
+        List<String> kept = new ArrayList<>();
+        String bulletsJson;
+        try {
+            bulletsJson = objectMapper.writeValueAsString(kept);
+            for (String bullet : bullets != null ? bullets : List.<String>of()) {
+                kept.add(truncate(bullet, MAX_TEXT_LENGTH));
+                String candidate = objectMapper.writeValueAsString(kept);
+                if (candidate.length() > MAX_TEXT_LENGTH) {
+                    kept.remove(kept.size() - 1);
+                    break;
+                }
+                bulletsJson = candidate;
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store insight bullets", e);
+        }
+
+        StoredInsight stored = new StoredInsight(truncate(title, MAX_TITLE_LENGTH), truncate(message, MAX_TEXT_LENGTH),
+                List.copyOf(kept), LocalDateTime.now());
+        String storedModel = truncate(model, MAX_MODEL_LENGTH);
+        Timestamp createdAt = Timestamp.valueOf(stored.createdAt());
+        if (!uniqueInserts.insertIfAbsent(INSERT_INSIGHT, fingerprint, storedModel, stored.title(), stored.message(),
+                bulletsJson, createdAt)) {
+            // Another request stored the same fingerprint first and either copy will do, unless that
+            // copy has expired.
+            jdbcTemplate.update(REPLACE_EXPIRED, storedModel, stored.title(), stored.message(), bulletsJson, createdAt,
+                    fingerprint, Timestamp.valueOf(stored.createdAt().minus(retention)));
+        }
+        cache.put(fingerprint, stored);
+        return stored;
+    }
+
+    @Scheduled(fixedDelayString = "${calora.ai.store.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        aiInsightRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        cache.evictExpired();
+    }
+
+    public Stats stats() {
+        return new Stats(modelCallsAvoided.get(), storeMisses.get(), cache.stats());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private StoredInsight toStoredInsight(AiInsightRecord record) {
+        List<String> bullets = Collections.emptyList();
+        if (record.getBulletsJson() != null) {
+            try {
+                bullets = objectMapper.readValue(record.getBulletsJson(), new TypeReference<List<String>>() {});
+            } catch (JsonProcessingException ignored) {
+            }
+        }
+        return new StoredInsight(record.getTitle(), record.getMessage(), bullets, record.getCreatedAt());
+    }
+
+    public record StoredInsight(String title, String message, List<String> bullets, LocalDateTime createdAt) {}
+
+    public record Stats(long modelCallsAvoided, long storeMisses, BoundedCache.Stats cache) {}
+}
@@ -0,0 +1,162 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.Activity;
+import com.calora.backend.model.DailyRollup;
+import com.calora.backend.model.Meal;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Per-day totals over a fixed window of days, kept in primitive arrays indexed by the day's offset
+ * from the start of the window. Meals, activities and rollup rows are bucketed in a single pass
+ * without boxing or per-day maps; entries dated outside the window are ignored. Memory is
+ * proportional to the window, not to the number of entries. Not thread-safe: build one per request.
+ */
+public final class DailyAggregator {
+
+    private final LocalDate start;
+    private final long startEpochDay;
+    private final int days;
+
+    private final int[] consumed;
+    private final int[] protein;
+    private final int[] carbs;
+    private final int[] fats;
+    private final int[] burned;
+    private final int[] duration;
+    private final int[] mealCount;
+    private final int[] activityCount;
+
+    public DailyAggregator(LocalDate start, int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("days must be at least 1");
+        }
+        this.start = start;
+        this.startEpochDay = start.toEpochDay();
+        this.days = days;
+        this.consumed = new int[days];
+        this.protein = new int[days];
+        this.carbs = new int[days];
+        this.fats = new int[days];
+        this.burned = new int[days];
+        this.duration = new int[days];
+        this.mealCount = new int[days];
+        this.activityCount = new int[days];
+    }
+
+    /** A window of {@code days} days whose last day is {@code end}. */
+    public static DailyAggregator endingOn(LocalDate end, int days) {
+        return new DailyAggregator(end.minusDays(days - 1L), days);
+    }
+
+    /** The window from {@code start} to {@code end}, both inclusive. */
+    public static DailyAggregator between(LocalDate start, LocalDate end) {
+        return new DailyAggregator(start, (int) (end.toEpochDay() - start.toEpochDay()) + 1);
+    }
+
+    public void addMeal(Meal meal) {
+        int day = offset(meal.getDate());
+        if (day < 0) return;
+        consumed[day] += safeInt(meal.getCalories());
+        protein[day] += safeInt(meal.getProtein());
+        carbs[day] += safeInt(meal.getCarbs());
+        fats[day] += safeInt(meal.getFats());
+        mealCount[day]++;
+    }
+
+    public void addActivity(Activity activity) {
+        int day = offset(activity.getDate());
+        if (day < 0) return;
+        burned[day] += safeInt(activity.getCaloriesBurned());
+        duration[day] += safeInt(activity.getDuration());
+        activityCount[day]++;
+    }
+
+    /** Adds a pre-aggregated day. Rollups carry no activity duration. */
+    public void addRollup(DailyRollup rollup) {
+        int day = offset(rollup.getDate());
+        if (day < 0) return;
+        consumed[day] += safeInt(rollup.getCaloriesConsumed());
+        protein[day] += safeInt(rollup.getProteinConsumed());
+        carbs[day] += safeInt(rollup.getCarbsConsumed());
+        fats[day] += safeInt(rollup.getFatsConsumed());
+        burned[day] += safeInt(rollup.getCaloriesBurned());
+        mealCount[day] += safeInt(rollup.getMealCount());
+        activityCount[day] += safeInt(rollup.getActivityCount());
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public LocalDate start() {
+        return start;
+    }
+
+    public LocalDate dateAt(int day) {
+        return start.plusDays(day);
+    }
+
+    public int consumed(int day) { return consumed[day]; }
+    public int protein(int day) { return protein[day]; }
+    public int carbs(int day) { return carbs[day]; }
+    public int fats(int day) { return fats[day]; }
+    public int burned(int day) { return burned[day]; }
+    public int duration(int day) { return duration[day]; }
+    public int mealCount(int day) { return mealCount[day]; }
+    public int activityCount(int day) { return activityCount[day]; }
+
+    /** Sums over the whole window, plus how many days had anything logged and how many exceeded {@code calorieTarget}. */
+    public Totals totals(int calorieTarget) {
+        int totalConsumed = 0, totalProtein = 0, totalCarbs = 0, totalFats = 0, totalBurned = 0, totalDuration = 0;
+        int meals = 0, activities = 0, daysWithMeals = 0, daysWithActivity = 0, daysOverTarget = 0;
+        for (int day = 0; day < days; day++) {
+            totalConsumed += consumed[day];
+            totalProtein += protein[day];
+            totalCarbs += carbs[day];
+            totalFats += fats[day];
+            totalBurned += burned[day];
+            totalDuration += duration[day];
+            meals += mealCount[day];
+            activities += activityCount[day];
+            if (consumed[day] > 0) daysWithMeals++;
+            if (burned[day] > 0) daysWithActivity++;
+            if (consumed[day] > calorieTarget) daysOverTarget++;
+        }
+        return new Totals(totalConsumed, totalProtein, totalCarbs, totalFats, totalBurned, totalDuration,
+                meals, activities, daysWithMeals, daysWithActivity, daysOverTarget);
+    }
+
+    public Totals totals() {
+        return totals(Integer.MAX_VALUE);
+    }
+
+    private int offset(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : offset(dateTime.toLocalDate());
+    }
+
+    private int offset(LocalDate date) {
+        if (date == null) return -1;
+        long day = date.toEpochDay() - startEpochDay;
+        return day >= 0 && day < days ? (int) day : -1;
+    }
+
+    private static int safeInt(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    public record Totals(
+            int consumed,
+            int protein,
+            int carbs,
+            int fats,
+            int burned,
+            int duration,
+            int meals,
+            int activities,
+            int daysWithMeals,
+            int daysWithActivity,
+            int daysOverTarget
+    ) {}
+}
@@ -0,0 +1,191 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.Activity;
+import com.calora.backend.model.DailyRollup;
+import com.calora.backend.model.Meal;
+import com.calora.backend.repository.ActivityRepository;
+import com.calora.backend.repository.DailyRollupRepository;
+import com.calora.backend.repository.MealRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the per-user, per-day totals in {@code daily_rollups} so read paths such as the
+ * dashboard can work from a handful of pre-aggregated rows instead of the full meal/activity history.
+ */
+@Service
+public class DailyRollupService {
+
+    private static final String INSERT_ROLLUP = """
+        insert into daily_rollups (user_id, date, calories_consumed, protein_consumed, carbs_consumed,
+                                   fats_consumed, calories_burned, meal_count, activity_count)
+        values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private UniqueInserts uniqueInserts;
+
+    @Transactional
+    public void recordMeal(Meal meal) {
+        applyMeal(meal, 1);
+    }
+
+    @Transactional
+    public void removeMeal(Meal meal) {
+        applyMeal(meal, -1);
+    }
+
+    @Transactional
+    public void recordActivity(Activity activity) {
+        applyActivity(activity, 1);
+    }
+
+    @Transactional
+    public void removeActivity(Activity activity) {
+        applyActivity(activity, -1);
+    }
+
+    /**
+     * Records a batch of meals with one rollup update per (user, day) instead of one per meal.
+     */
+    @Transactional
+    public void recordMeals(List<Meal> meals) {
+        Map<String, DailyRollup> deltas = new LinkedHashMap<>();
+        for (Meal meal : meals) {
+            if (meal.getDate() == null || meal.getUser() == null) continue;
+            DailyRollup delta = deltaFor(deltas, meal.getUser().getId(), meal.getDate().toLocalDate());
+            delta.setCaloriesConsumed(delta.getCaloriesConsumed() + safeInt(meal.getCalories()));
+            delta.setProteinConsumed(delta.getProteinConsumed() + safeInt(meal.getProtein()));
+            delta.setCarbsConsumed(delta.getCarbsConsumed() + safeInt(meal.getCarbs()));
+            delta.setFatsConsumed(delta.getFatsConsumed() + safeInt(meal.getFats()));
+            delta.setMealCount(delta.getMealCount() + 1);
+        }
+        deltas.values().forEach(this::apply);
+    }
+
+    /**
+     * Records a batch of activities with one rollup update per (user, day) instead of one per activity.
+     */
+    @Transactional
+    public void recordActivities(List<Activity> activities) {
+        Map<String, DailyRollup> deltas = new LinkedHashMap<>();
+        for (Activity activity : activities) {
+            if (activity.getDate() == null || activity.getUser() == null) continue;
+            DailyRollup delta = deltaFor(deltas, activity.getUser().getId(), activity.getDate().toLocalDate());
+            delta.setCaloriesBurned(delta.getCaloriesBurned() + safeInt(activity.getCaloriesBurned()));
+            delta.setActivityCount(delta.getActivityCount() + 1);
+        }
+        deltas.values().forEach(this::apply);
+    }
+
+    /**
+     * Rebuilds the rollups from the raw tables when none exist yet, e.g. for databases that
+     * already held meals and activities before the rollup table was introduced.
+     */
+    @Transactional
+    public void backfillIfEmpty() {
+        if (dailyRollupRepository.count() > 0) {
+            return;
+        }
+
+        Map<String, DailyRollup> rollups = new LinkedHashMap<>();
+        for (Object[] row : mealRepository.sumByUserAndDay()) {
+            DailyRollup rollup = rollups.computeIfAbsent(key(row),
+                    k -> new DailyRollup((Long) row[0], (LocalDate) row[1]));
+            rollup.setCaloriesConsumed(toInt(row[2]));
+            rollup.setProteinConsumed(toInt(row[3]));
+            rollup.setCarbsConsumed(toInt(row[4]));
+            rollup.setFatsConsumed(toInt(row[5]));
+            rollup.setMealCount(toInt(row[6]));
+        }
+        for (Object[] row : activityRepository.sumByUserAndDay()) {
+            DailyRollup rollup = rollups.computeIfAbsent(key(row),
+                    k -> new DailyRollup((Long) row[0], (LocalDate) row[1]));
+            rollup.setCaloriesBurned(toInt(row[2]));
+            rollup.setActivityCount(toInt(row[3]));
+        }
+
+        if (!rollups.isEmpty()) {
+            dailyRollupRepository.saveAll(rollups.values());
+        }
+    }
+
+    private void applyMeal(Meal meal, int sign) {
+        if (meal.getDate() == null || meal.getUser() == null) {
+            return;
+        }
+        apply(meal.getUser().getId(), meal.getDate().toLocalDate(),
+                sign * safeInt(meal.getCalories()),
+                sign * safeInt(meal.getProtein()),
+                sign * safeInt(meal.getCarbs()),
+                sign * safeInt(meal.getFats()),
+                0, sign, 0);
+    }
+
+    private void applyActivity(Activity activity, int sign) {
+        if (activity.getDate() == null || activity.getUser() == null) {
+            return;
+        }
+        apply(activity.getUser().getId(), activity.getDate().toLocalDate(),
+                0, 0, 0, 0,
+                sign * safeInt(activity.getCaloriesBurned()),
+                0, sign);
+    }
+
+    private void apply(Long userId, LocalDate date, int calories, int protein, int carbs, int fats,
+                       int burned, int meals, int activities) {
+        int updated = dailyRollupRepository.applyDelta(userId, date, calories, protein, carbs, fats,
+                burned, meals, activities);
+        if (updated > 0) {
+            return;
+        }
+
+        if (!uniqueInserts.insertIfAbsent(INSERT_ROLLUP, userId, date, calories, protein, carbs, fats,
+                burned, meals, activities)) {
+            // A concurrent first write for the same day created the row; add to it instead.
+            dailyRollupRepository.applyDelta(userId, date, calories, protein, carbs, fats, burned, meals, activities);
+        }
+    }
+
+    private DailyRollup deltaFor(Map<String, DailyRollup> deltas, Long userId, LocalDate date) {
+        return deltas.computeIfAbsent(userId + ":" + date, k -> new DailyRollup(userId, date));
+    }
+
+    private void apply(DailyRollup delta) {
+        apply(delta.getUserId(), delta.getDate(),
+                delta.getCaloriesConsumed(),
+                delta.getProteinConsumed(),
+                delta.getCarbsConsumed(),
+                delta.getFatsConsumed(),
+                delta.getCaloriesBurned(),
+                delta.getMealCount(),
+                delta.getActivityCount());
+    }
+
+    private String key(Object[] row) {
+        return row[0] + ":" + row[1];
+    }
+
+    private int toInt(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    private int safeInt(Integer value) {
+        return value != null ? value : 0;
+    }
+}
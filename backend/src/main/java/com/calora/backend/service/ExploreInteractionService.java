@@ -0,0 +1,378 @@
+package com.calora.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Like and reaction toggles written as conditional statements against the unique
+ * {@code (post_id, user_id)} keys, with the per-post like count and per-emoji reaction counts in
+ * {@code explore_post_counters} and {@code explore_reaction_counts} adjusted in the same
+ * transaction. Nothing is loaded first: a toggle tries the delete, and only when that removes
+ * nothing does it insert. A concurrent toggle of the same pair surfaces as a duplicate key or a
+ * changed row, and the attempt is rolled back and replayed against the row the other request left;
+ * if it still conflicts after {@link #MAX_ATTEMPTS} attempts a {@link ConcurrencyFailureException}
+ * is thrown.
+ *
+ * <p>On PostgreSQL each toggle is a single call to {@code calora_toggle_like} or
+ * {@code calora_toggle_reaction} (see {@code db/vendor/postgresql}), which do the same work
+ * server-side with {@code ON CONFLICT}. Other databases run the statements below.
+ *
+ * <p>Unknown posts and users are rejected by the foreign keys and surface as a
+ * {@link org.springframework.dao.DataIntegrityViolationException}.
+ */
+@Service
+public class ExploreInteractionService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String INSERT_LIKE_COUNTER = """
+        insert into explore_post_counters (post_id, likes)
+        select :postId, count(*) from explore_likes where post_id = :postId
+    """;
+
+    private static final String INSERT_REACTION_COUNTER = """
+        insert into explore_reaction_counts (post_id, emoji, reactions)
+        select :postId, :emoji, count(*) from explore_reactions where post_id = :postId and emoji = :emoji
+    """;
+
+    // The newest comments per post, returned oldest first like the full comment list.
+    private static final String LATEST_COMMENTS = """
+        select id, post_id, user_id, text, created_at from (
+            select c.id, c.post_id, c.user_id, c.text, c.created_at,
+                   row_number() over (partition by c.post_id order by c.created_at desc, c.id desc) as position
+            from explore_comments c
+            where c.post_id in (:postIds)
+        ) ranked
+        where ranked.position <= :latest
+        order by post_id, created_at, id
+    """;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile Boolean postgres;
+
+    /** Likes the post, or removes the like if there is one; returns whether the post is now liked. */
+    public boolean toggleLike(Long postId, Long userId) {
+        if (isPostgres()) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("postId", postId)
+                    .addValue("userId", userId)
+                    .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+            return inTransaction(() -> jdbcTemplate.queryForObject(
+                    "select calora_toggle_like(:postId, :userId, :now)", params, Boolean.class));
+        }
+        return inTransaction(() -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("postId", postId)
+                    .addValue("userId", userId);
+            int removed = jdbcTemplate.update(
+                    "delete from explore_likes where post_id = :postId and user_id = :userId", params);
+            if (removed > 0) {
+                adjustLikes(postId, -removed);
+                return false;
+            }
+            jdbcTemplate.update("""
+                insert into explore_likes (post_id, user_id, created_at)
+                values (:postId, :userId, :createdAt)
+            """, params.addValue("createdAt", Timestamp.valueOf(LocalDateTime.now())));
+            adjustLikes(postId, 1);
+            return true;
+        });
+    }
+
+    /**
+     * Toggles the user's reaction on the post: the same emoji again removes it, another emoji
+     * replaces it. Returns whether the user has a reaction on the post afterwards.
+     */
+    public boolean toggleReaction(Long postId, Long userId, String emoji) {
+        if (isPostgres()) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("postId", postId)
+                    .addValue("userId", userId)
+                    .addValue("emoji", emoji)
+                    .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+            return inTransaction(() -> jdbcTemplate.queryForObject(
+                    "select calora_toggle_reaction(:postId, :userId, :emoji, :now)", params, Boolean.class));
+        }
+        return inTransaction(() -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("postId", postId)
+                    .addValue("userId", userId)
+                    .addValue("emoji", emoji);
+            int removed = jdbcTemplate.update(
+                    "delete from explore_reactions where post_id = :postId and user_id = :userId and emoji = :emoji",
+                    params);
+            if (removed > 0) {
+                jdbcTemplate.update("""
+                    update explore_reaction_counts set reactions = reactions - 1
+                    where post_id = :postId and emoji = :emoji
+                """, params);
+                return false;
+            }
+
+            params.addValue("createdAt", Timestamp.valueOf(LocalDateTime.now()));
+            List<String> previous = jdbcTemplate.queryForList(
+                    "select emoji from explore_reactions where post_id = :postId and user_id = :userId",
+                    params, String.class);
+            if (previous.isEmpty()) {
+                jdbcTemplate.update("""
+                    insert into explore_reactions (post_id, user_id, emoji, created_at)
+                    values (:postId, :userId, :emoji, :createdAt)
+                """, params);
+                adjustReactions(postId, null, emoji);
+                return true;
+            }
+
+            String previousEmoji = previous.get(0);
+            int switched = jdbcTemplate.update(
+                    "update explore_reactions set emoji = :emoji, created_at = :createdAt"
+                            + " where post_id = :postId and user_id = :userId and "
+                            + (previousEmoji != null ? "emoji = :previous" : "emoji is null"),
+                    params.addValue("previous", previousEmoji));
+            if (switched == 0) {
+                throw new OptimisticLockingFailureException("Reaction changed concurrently");
+            }
+            adjustReactions(postId, previousEmoji, emoji);
+            return true;
+        });
+    }
+
+    /**
+     * Takes the user's likes and reactions off the counts and drops the counters of the user's own
+     * posts. Must run in the caller's transaction, before those rows are deleted.
+     */
+    public void removeUser(Long userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        jdbcTemplate.update("""
+            delete from explore_post_counters
+            where post_id in (select id from explore_posts where user_id = :userId)
+        """, params);
+        jdbcTemplate.update("""
+            delete from explore_reaction_counts
+            where post_id in (select id from explore_posts where user_id = :userId)
+        """, params);
+        jdbcTemplate.update("""
+            update explore_post_counters set likes = likes - 1
+            where post_id in (select post_id from explore_likes where user_id = :userId)
+        """, params);
+        jdbcTemplate.update("""
+            update explore_reaction_counts c set reactions = reactions - 1
+            where exists (
+                select 1 from explore_reactions r
+                where r.user_id = :userId and r.post_id = c.post_id and r.emoji = c.emoji
+            )
+        """, params);
+    }
+
+    /** Recounts the counters of every post by the given authors, e.g. after seeding. */
+    public void rebuildCounters(Collection<Long> authorIds) {
+        if (authorIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("authorIds", authorIds);
+        String authorPosts = "select id from explore_posts where user_id in (:authorIds)";
+        jdbcTemplate.update("delete from explore_post_counters where post_id in (" + authorPosts + ")", params);
+        jdbcTemplate.update("delete from explore_reaction_counts where post_id in (" + authorPosts + ")", params);
+        jdbcTemplate.update("""
+            insert into explore_post_counters (post_id, likes)
+            select p.id, (select count(*) from explore_likes l where l.post_id = p.id)
+            from explore_posts p
+            where p.user_id in (:authorIds)
+        """, params);
+        jdbcTemplate.update("""
+            insert into explore_reaction_counts (post_id, emoji, reactions)
+            select r.post_id, r.emoji, count(*)
+            from explore_reactions r
+            join explore_posts p on p.id = r.post_id
+            where p.user_id in (:authorIds) and r.emoji is not null
+            group by r.post_id, r.emoji
+        """, params);
+    }
+
+    /**
+     * Counts, the viewer's own like and reaction, and the latest {@code latestComments} comments
+     * for each post, in a fixed number of queries regardless of how popular the posts are. Posts
+     * without any engagement are absent from the map.
+     */
+    public Map<Long, PostEngagement> engagementFor(Collection<Long> postIds, Long viewerId, int latestComments) {
+        Map<Long, PostEngagement> engagement = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return engagement;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("postIds", postIds)
+                .addValue("viewerId", viewerId)
+                .addValue("latest", latestComments);
+
+        jdbcTemplate.query("select post_id, likes from explore_post_counters where post_id in (:postIds)",
+                params, rs -> { engagement(engagement, rs.getLong(1)).likes = rs.getLong(2); });
+        jdbcTemplate.query("""
+            select post_id, emoji, reactions from explore_reaction_counts
+            where post_id in (:postIds) and reactions > 0
+            order by post_id, reactions desc, emoji
+        """, params, rs -> { engagement(engagement, rs.getLong(1)).reactions.put(rs.getString(2), rs.getLong(3)); });
+        jdbcTemplate.query("""
+            select post_id, count(*) from explore_comments
+            where post_id in (:postIds)
+            group by post_id
+        """, params, rs -> { engagement(engagement, rs.getLong(1)).comments = rs.getLong(2); });
+
+        if (viewerId != null) {
+            jdbcTemplate.query("select post_id from explore_likes where user_id = :viewerId and post_id in (:postIds)",
+                    params, rs -> { engagement(engagement, rs.getLong(1)).likedByViewer = true; });
+            jdbcTemplate.query("""
+                select post_id, emoji from explore_reactions
+                where user_id = :viewerId and post_id in (:postIds)
+            """, params, rs -> { engagement(engagement, rs.getLong(1)).viewerReaction = rs.getString(2); });
+        }
+
+        if (latestComments > 0) {
+            jdbcTemplate.query(LATEST_COMMENTS, params, rs -> {
+                engagement(engagement, rs.getLong("post_id")).latestComments.add(new CommentRef(
+                        rs.getLong("id"),
+                        rs.getLong("user_id"),
+                        rs.getString("text"),
+                        rs.getTimestamp("created_at") != null ? rs.getTimestamp("created_at").toLocalDateTime() : null));
+            });
+        }
+        return engagement;
+    }
+
+    /** One page of the post's likers in user id order, strictly after {@code afterUserId} when given. */
+    public List<Long> likers(Long postId, Long afterUserId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("postId", postId)
+                .addValue("afterUserId", afterUserId != null ? afterUserId : Long.MIN_VALUE)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList("""
+            select user_id from explore_likes
+            where post_id = :postId and user_id > :afterUserId
+            order by user_id
+            limit :limit
+        """, params, Long.class);
+    }
+
+    /**
+     * One page of the post's reactions in user id order, strictly after {@code afterUserId} when
+     * given, optionally only those with {@code emoji}.
+     */
+    public List<Reactor> reactors(Long postId, String emoji, Long afterUserId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("postId", postId)
+                .addValue("emoji", emoji)
+                .addValue("afterUserId", afterUserId != null ? afterUserId : Long.MIN_VALUE)
+                .addValue("limit", limit);
+        return jdbcTemplate.query("select user_id, emoji from explore_reactions"
+                        + " where post_id = :postId and user_id > :afterUserId"
+                        + (emoji != null ? " and emoji = :emoji" : "")
+                        + " order by user_id limit :limit",
+                params, (rs, rowNum) -> new Reactor(rs.getLong(1), rs.getString(2)));
+    }
+
+    private static PostEngagement engagement(Map<Long, PostEngagement> engagement, long postId) {
+        return engagement.computeIfAbsent(postId, key -> new PostEngagement());
+    }
+
+    private void adjustLikes(Long postId, int delta) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("postId", postId)
+                .addValue("delta", delta);
+        int updated = jdbcTemplate.update(
+                "update explore_post_counters set likes = likes + :delta where post_id = :postId", params);
+        if (updated == 0) {
+            // Counted from the rows, which already include this transaction's change.
+            jdbcTemplate.update(INSERT_LIKE_COUNTER, params);
+        }
+    }
+
+    /** Moves one reaction from {@code removed} (if any) to {@code added} in a single update. */
+    private void adjustReactions(Long postId, String removed, String added) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("postId", postId)
+                .addValue("emoji", added)
+                .addValue("removed", removed != null ? removed : added);
+        int updated = jdbcTemplate.update("""
+            update explore_reaction_counts
+            set reactions = reactions + case when emoji = :emoji then 1 else -1 end
+            where post_id = :postId and emoji in (:emoji, :removed)
+        """, params);
+        int expected = removed == null || removed.equals(added) ? 1 : 2;
+        if (updated < expected) {
+            // First reaction with this emoji on the post.
+            List<String> present = jdbcTemplate.queryForList(
+                    "select emoji from explore_reaction_counts where post_id = :postId and emoji = :emoji",
+                    params, String.class);
+            if (present.isEmpty()) {
+                jdbcTemplate.update(INSERT_REACTION_COUNTER, params);
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = result;
+        }
+        return result;
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> work.get());
+            } catch (DuplicateKeyException | ConcurrencyFailureException e) {
+                // Another toggle of the same pair won the race; replay against what it left.
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new ConcurrencyFailureException("Toggle kept conflicting with concurrent changes", e);
+                }
+            }
+        }
+    }
+
+    /** Engagement of one post as seen by one viewer; mutable only while it is being assembled. */
+    public static final class PostEngagement {
+        private long likes;
+        private final Map<String, Long> reactions = new LinkedHashMap<>();
+        private long comments;
+        private boolean likedByViewer;
+        private String viewerReaction;
+        private final List<CommentRef> latestComments = new ArrayList<>();
+
+        public long likes() { return likes; }
+
+        public Map<String, Long> reactions() { return reactions; }
+
+        public long comments() { return comments; }
+
+        public boolean likedByViewer() { return likedByViewer; }
+
+        public String viewerReaction() { return viewerReaction; }
+
+        public List<CommentRef> latestComments() { return latestComments; }
+    }
+
+    public record CommentRef(Long id, Long userId, String text, LocalDateTime createdAt) {}
+
+    public record Reactor(Long userId, String emoji) {}
+}
@@ -0,0 +1,93 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.ExploreMessage;
+import com.calora.backend.model.ExploreThread;
+import com.calora.backend.repository.ExploreMessageRepository;
+import com.calora.backend.repository.ExploreThreadRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maintains {@code explore_threads}: one row per (user, counterpart) with the latest message and
+ * the number of messages the user has not read yet, updated whenever a message is sent.
+ */
+@Service
+public class ExploreThreadService {
+
+    private static final String INSERT_THREAD = """
+        insert into explore_threads (user_id, counterpart_id, last_message_id, last_text, last_at, unread_count)
+        values (?, ?, ?, ?, ?, ?)
+    """;
+
+    @Autowired
+    private ExploreThreadRepository threadRepository;
+
+    @Autowired
+    private ExploreMessageRepository messageRepository;
+
+    @Autowired
+    private UniqueInserts uniqueInserts;
+
+    @Transactional
+    public void recordMessage(ExploreMessage message) {
+        Long fromId = message.getFromUser().getId();
+        Long toId = message.getToUser().getId();
+        upsert(fromId, toId, message, 0);
+        upsert(toId, fromId, message, 1);
+    }
+
+    @Transactional
+    public void markRead(Long userId, Long counterpartId) {
+        threadRepository.markRead(userId, counterpartId);
+    }
+
+    /**
+     * Builds the thread rows from the message history when the table is empty, e.g. after
+     * seeding or on a database that predates the thread index. Backfilled threads start read.
+     */
+    @Transactional
+    public void backfillIfEmpty() {
+        if (threadRepository.count() > 0) {
+            return;
+        }
+
+        Map<String, ExploreThread> threads = new LinkedHashMap<>();
+        for (ExploreMessage message : messageRepository.findAll(Sort.by("createdAt", "id"))) {
+            Long fromId = message.getFromUser().getId();
+            Long toId = message.getToUser().getId();
+            apply(threads.computeIfAbsent(fromId + ":" + toId, k -> new ExploreThread(fromId, toId)), message);
+            apply(threads.computeIfAbsent(toId + ":" + fromId, k -> new ExploreThread(toId, fromId)), message);
+        }
+        if (!threads.isEmpty()) {
+            threadRepository.saveAll(threads.values());
+        }
+    }
+
+    private void upsert(Long userId, Long counterpartId, ExploreMessage message, int unread) {
+        int updated = threadRepository.applyMessage(userId, counterpartId, message.getId(),
+                message.getText(), message.getCreatedAt(), unread);
+        if (updated > 0) {
+            return;
+        }
+
+        Timestamp lastAt = message.getCreatedAt() != null ? Timestamp.valueOf(message.getCreatedAt()) : null;
+        if (!uniqueInserts.insertIfAbsent(INSERT_THREAD, userId, counterpartId, message.getId(),
+                message.getText(), lastAt, unread)) {
+            // The other participant's request created the thread first; update it instead.
+            threadRepository.applyMessage(userId, counterpartId, message.getId(),
+                    message.getText(), message.getCreatedAt(), unread);
+        }
+    }
+
+    private void apply(ExploreThread thread, ExploreMessage message) {
+        thread.setLastMessageId(message.getId());
+        thread.setLastText(message.getText());
+        thread.setLastAt(message.getCreatedAt());
+    }
+}
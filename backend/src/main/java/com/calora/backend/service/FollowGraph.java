@@ -0,0 +1,216 @@
+package com.calora.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The follow graph held in memory as sorted {@code long[]} adjacency lists, one for the accounts
+ * each user follows and one for their followers. Loaded from {@code explore_follows} once the
+ * application is ready and kept current by the follow endpoints, so relationship checks and
+ * suggestions never touch the database.
+ *
+ * <p>Arrays are never modified once published: a change builds a new array and swaps it in, so
+ * readers need no locking. Membership is a binary search; suggestions walk the accounts followed
+ * by the accounts the user follows and rank them by how many of those lead to them.
+ */
+@Component
+public class FollowGraph {
+
+    private static final long[] NONE = new long[0];
+    // Bounds the second-degree walk for users who follow very large accounts.
+    private static final int MAX_EDGES_SCANNED = 200_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, long[]> following = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> followers = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, List<Long>> outgoing = new HashMap<>();
+        Map<Long, List<Long>> incoming = new HashMap<>();
+        jdbcTemplate.query("select follower_id, following_id from explore_follows", rs -> {
+            long followerId = rs.getLong(1);
+            long followingId = rs.getLong(2);
+            outgoing.computeIfAbsent(followerId, key -> new ArrayList<>()).add(followingId);
+            incoming.computeIfAbsent(followingId, key -> new ArrayList<>()).add(followerId);
+        });
+
+        ready = false;
+        following.clear();
+        followers.clear();
+        outgoing.forEach((userId, ids) -> following.put(userId, toSortedArray(ids)));
+        incoming.forEach((userId, ids) -> followers.put(userId, toSortedArray(ids)));
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Records a follow once the surrounding transaction commits, or immediately outside one. */
+    public void followed(Long followerId, Long followingId) {
+        afterCommit(() -> {
+            following.compute(followerId, (key, ids) -> insert(ids, followingId));
+            followers.compute(followingId, (key, ids) -> insert(ids, followerId));
+        });
+    }
+
+    public void unfollowed(Long followerId, Long followingId) {
+        afterCommit(() -> {
+            following.computeIfPresent(followerId, (key, ids) -> remove(ids, followingId));
+            followers.computeIfPresent(followingId, (key, ids) -> remove(ids, followerId));
+        });
+    }
+
+    public void removeUser(Long userId) {
+        afterCommit(() -> {
+            for (long followingId : following.getOrDefault(userId, NONE)) {
+                followers.computeIfPresent(followingId, (key, ids) -> remove(ids, userId));
+            }
+            for (long followerId : followers.getOrDefault(userId, NONE)) {
+                following.computeIfPresent(followerId, (key, ids) -> remove(ids, userId));
+            }
+            following.remove(userId);
+            followers.remove(userId);
+        });
+    }
+
+    /** Ids of the accounts {@code userId} follows, ascending. */
+    public long[] followingOf(long userId) {
+        return following.getOrDefault(userId, NONE).clone();
+    }
+
+    /** Ids of the accounts following {@code userId}, ascending. */
+    public long[] followersOf(long userId) {
+        return followers.getOrDefault(userId, NONE).clone();
+    }
+
+    public boolean follows(long followerId, long followingId) {
+        return Arrays.binarySearch(following.getOrDefault(followerId, NONE), followingId) >= 0;
+    }
+
+    public Relationship relationship(long userId, long otherId) {
+        boolean follows = follows(userId, otherId);
+        boolean followedBy = follows(otherId, userId);
+        return new Relationship(follows, followedBy, follows && followedBy, mutualConnections(userId, otherId));
+    }
+
+    /**
+     * Ranks the accounts followed by the accounts {@code userId} follows, excluding the user and
+     * anyone they already follow: most shared connections first, then accounts that already follow
+     * the user, then the most followed.
+     */
+    public List<Suggestion> suggestions(long userId, int limit) {
+        long[] direct = following.getOrDefault(userId, NONE);
+        Map<Long, Integer> shared = new HashMap<>();
+        int scanned = 0;
+        for (long via : direct) {
+            for (long candidate : following.getOrDefault(via, NONE)) {
+                if (++scanned > MAX_EDGES_SCANNED) break;
+                if (candidate == userId || Arrays.binarySearch(direct, candidate) >= 0) continue;
+                shared.merge(candidate, 1, Integer::sum);
+            }
+            if (scanned > MAX_EDGES_SCANNED) break;
+        }
+
+        Comparator<Suggestion> ranking = Comparator.comparingInt(Suggestion::mutualConnections)
+                .thenComparing(Suggestion::followsYou)
+                .thenComparingInt(Suggestion::followers)
+                .reversed()
+                .thenComparingLong(Suggestion::userId);
+        PriorityQueue<Suggestion> heap = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<Long, Integer> entry : shared.entrySet()) {
+            long candidate = entry.getKey();
+            heap.offer(new Suggestion(candidate, entry.getValue(), follows(candidate, userId),
+                    followers.getOrDefault(candidate, NONE).length));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Suggestion> ranked = new ArrayList<>(heap);
+        ranked.sort(ranking);
+        return ranked;
+    }
+
+    /** Accounts both users follow, by merging their sorted lists. */
+    private int mutualConnections(long userId, long otherId) {
+        long[] a = following.getOrDefault(userId, NONE);
+        long[] b = following.getOrDefault(otherId, NONE);
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        if (ids == null) {
+            return new long[] { id };
+        }
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        int at = -position - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        copy[at] = id;
+        System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+        return copy;
+    }
+
+    /** Returns null when the last id is removed, which drops the entry from the map. */
+    private static long[] remove(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        System.arraycopy(ids, at + 1, copy, at, ids.length - at - 1);
+        return copy;
+    }
+
+    private static long[] toSortedArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    public record Relationship(boolean following, boolean followedBy, boolean mutual, int mutualConnections) {}
+
+    public record Suggestion(long userId, int mutualConnections, boolean followsYou, int followers) {}
+}
@@ -0,0 +1,355 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.FoodItem;
+import com.calora.backend.model.FoodItemType;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Bulk loader for {@code food_items}. The input is streamed record by record, validated, deduped
+ * by (name, category) against both the existing catalog and earlier rows of the same file, and
+ * written with plain JDBC batch inserts, one transaction per batch. Going through JPA here would
+ * insert row by row, since {@code GenerationType.IDENTITY} disables Hibernate's insert batching.
+ *
+ * <p>Every column is validated against its width before a row joins a batch, so an oversized
+ * value rejects that row instead of failing a batch halfway through the file. Each committed
+ * batch is handed to the search index with the ids the database generated for it.
+ */
+@Service
+public class FoodCatalogImporter {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int[] COLUMN_TYPES = {
+            Types.VARCHAR, Types.INTEGER, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR
+    };
+
+    private static final String INSERT_SQL = """
+        insert into food_items (name, calories, protein, carbs, fats, category, serving_size, type)
+        values (?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FoodCatalogService foodCatalogService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${calora.import.batch-size:1000}")
+    private int batchSize;
+
+    public enum Format { CSV, JSON }
+
+    public ImportReport importFile(InputStream in, Format format) throws IOException {
+        long started = System.nanoTime();
+
+        ImportRun run = new ImportRun(existingKeys());
+        if (format == Format.CSV) {
+            readCsv(in, run);
+        } else {
+            readJson(in, run);
+        }
+        run.flush();
+
+        long inserted = run.inserted;
+
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        return new ImportReport(
+                run.rowsRead,
+                inserted,
+                run.duplicates,
+                run.rejected,
+                millis,
+                Math.round(run.rowsRead * 1000.0 / millis),
+                run.errors
+        );
+    }
+
+    private void readCsv(InputStream in, ImportRun run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        if (headerLine.startsWith("\uFEFF")) {
+            headerLine = headerLine.substring(1);
+        }
+        List<String> header = splitCsvLine(headerLine).stream().map(this::normalizeKey).toList();
+        if (!header.contains("name") || !header.contains("calories")) {
+            throw new IllegalArgumentException("CSV header must include name and calories columns");
+        }
+
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+
+            List<String> values = splitCsvLine(line);
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                record.put(header.get(i), values.get(i));
+            }
+            run.accept(record, "line " + lineNumber);
+        }
+    }
+
+    private void readJson(InputStream in, ImportRun run) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON import must be an array of food objects");
+            }
+            long index = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode node = objectMapper.readTree(parser);
+                Map<String, String> record = new HashMap<>();
+                node.fields().forEachRemaining(field -> {
+                    JsonNode value = field.getValue();
+                    record.put(normalizeKey(field.getKey()), value.isNull() ? null : value.asText());
+                });
+                run.accept(record, "item " + index++);
+            }
+        }
+    }
+
+    private Set<String> existingKeys() {
+        Set<String> keys = new HashSet<>();
+        jdbcTemplate.query("select name, category from food_items",
+                (RowCallbackHandler) rs -> keys.add(dedupeKey(rs.getString(1), rs.getString(2))));
+        return keys;
+    }
+
+    /** Inserts the rows in one transaction and returns them as items carrying their generated ids. */
+    private List<FoodItem> insertBatch(List<Object[]> rows) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> jdbcTemplate.execute((ConnectionCallback<List<FoodItem>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        statement.setObject(i + 1, row[i], COLUMN_TYPES[i]);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                List<FoodItem> items = new ArrayList<>(rows.size());
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Object[] row : rows) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Missing generated id for imported food");
+                        }
+                        FoodItem item = new FoodItem((String) row[0], (Integer) row[1], (Double) row[2],
+                                (Double) row[3], (Double) row[4], (String) row[5], (String) row[6],
+                                FoodItemType.valueOf((String) row[7]));
+                        item.setId(keys.getLong(1));
+                        items.add(item);
+                    }
+                }
+                return items;
+            }
+        }));
+    }
+
+    private Object[] toRow(Map<String, String> record) {
+        String name = trimToNull(record.get("name"));
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+        checkLength(name, "name");
+        String category = trimToNull(record.get("category"));
+        checkLength(category, "category");
+        String servingSize = trimToNull(record.get("servingsize"));
+        checkLength(servingSize, "serving_size");
+
+        Integer calories = parseInt(record.get("calories"), "calories");
+        if (calories == null) {
+            throw new IllegalArgumentException("calories is required");
+        }
+
+        FoodItemType type = FoodItemType.FOOD;
+        String rawType = trimToNull(record.get("type"));
+        if (rawType != null) {
+            try {
+                type = FoodItemType.valueOf(rawType.toUpperCase(Locale.ROOT).replace(' ', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown type " + rawType);
+            }
+        }
+
+        return new Object[]{
+                name,
+                calories,
+                parseDouble(record.get("protein"), "protein"),
+                parseDouble(record.get("carbs"), "carbs"),
+                parseDouble(record.get("fats"), "fats"),
+                category,
+                servingSize,
+                type.name()
+        };
+    }
+
+    private void checkLength(String value, String field) {
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(field + " is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    private Integer parseInt(String raw, String field) {
+        String value = trimToNull(raw);
+        if (value == null) return null;
+        try {
+            int parsed = (int) Math.round(Double.parseDouble(value));
+            if (parsed < 0) {
+                throw new IllegalArgumentException(field + " must not be negative");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + value);
+        }
+    }
+
+    private Double parseDouble(String raw, String field) {
+        String value = trimToNull(raw);
+        if (value == null) return null;
+        try {
+            double parsed = Double.parseDouble(value);
+            if (parsed < 0 || Double.isNaN(parsed) || Double.isInfinite(parsed)) {
+                throw new IllegalArgumentException(field + " must be a non-negative number");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + value);
+        }
+    }
+
+    private String trimToNull(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private String normalizeKey(String key) {
+        return key.trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", "");
+    }
+
+    private static String dedupeKey(String name, String category) {
+        return (name == null ? "" : name.trim().toLowerCase(Locale.ROOT))
+                + '\u0000'
+                + (category == null ? "" : category.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields and {@code ""} escapes. Quoted fields
+     * may not span lines.
+     */
+    private List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private class ImportRun {
+        private final Set<String> seenKeys;
+        private final List<Object[]> batch = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private long rowsRead;
+        private long inserted;
+        private long duplicates;
+        private long rejected;
+
+        ImportRun(Set<String> seenKeys) {
+            this.seenKeys = seenKeys;
+        }
+
+        void accept(Map<String, String> record, String location) {
+            rowsRead++;
+            Object[] row;
+            try {
+                row = toRow(record);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(location + ": " + e.getMessage());
+                }
+                return;
+            }
+
+            if (!seenKeys.add(dedupeKey((String) row[0], (String) row[5]))) {
+                duplicates++;
+                return;
+            }
+
+            batch.add(row);
+            if (batch.size() >= Math.max(1, batchSize)) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            List<FoodItem> saved = insertBatch(batch);
+            inserted += saved.size();
+            batch.clear();
+            foodCatalogService.itemsSaved(saved);
+        }
+    }
+
+    public record ImportReport(
+            long rowsRead,
+            long inserted,
+            long duplicates,
+            long rejected,
+            long millis,
+            long rowsPerSecond,
+            List<String> errors
+    ) {}
+}
@@ -0,0 +1,89 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.FoodItem;
+import com.calora.backend.model.FoodItemType;
+import com.calora.backend.repository.FoodItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read path for the food and recipe catalog. The catalog only changes when it is seeded or
+ * imported, so query results are cached per (type, category, search) until {@link #invalidate()}.
+ * Name searches go to the in-memory {@link FoodSearchIndex} once it has been built and are
+ * returned best match first; the database is only searched while the index is still loading.
+ */
+@Service
+public class FoodCatalogService {
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private FoodSearchIndex foodSearchIndex;
+
+    private final BoundedCache<CatalogQuery, List<FoodItem>> cache;
+
+    public FoodCatalogService(@Value("${calora.catalog.cache.max-entries:500}") int maxEntries) {
+        this.cache = new BoundedCache<>(maxEntries, null);
+    }
+
+    public List<FoodItem> query(FoodItemType type, String search, String category, int limit) {
+        boolean hasSearch = search != null && !search.isBlank();
+        boolean hasCategory = category != null && !category.isBlank() && !"All".equalsIgnoreCase(category);
+
+        if (hasSearch && foodSearchIndex.isReady()) {
+            return foodSearchIndex.search(type, hasCategory ? category.trim() : null, search, limit);
+        }
+
+        CatalogQuery key = new CatalogQuery(
+                type,
+                hasCategory ? category.trim() : null,
+                hasSearch ? search.trim().toLowerCase(Locale.ROOT) : null
+        );
+        List<FoodItem> items = cache.getOrLoad(key, this::load);
+        return hasSearch && items.size() > limit ? items.subList(0, limit) : items;
+    }
+
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * Applies saved or updated catalog items to the search index and drops cached listings.
+     */
+    public void itemsSaved(Collection<FoodItem> items) {
+        foodSearchIndex.upsert(items);
+        cache.clear();
+    }
+
+    public void itemRemoved(Long id) {
+        foodSearchIndex.remove(id);
+        cache.clear();
+    }
+
+    public BoundedCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    private List<FoodItem> load(CatalogQuery query) {
+        List<FoodItem> items;
+        if (query.search() != null && query.category() != null) {
+            items = foodItemRepository.findByTypeAndCategoryAndNameContainingIgnoreCaseOrderByNameAsc(
+                    query.type(), query.category(), query.search());
+        } else if (query.search() != null) {
+            items = foodItemRepository.findByTypeAndNameContainingIgnoreCaseOrderByNameAsc(query.type(), query.search());
+        } else if (query.category() != null) {
+            items = foodItemRepository.findByTypeAndCategoryOrderByNameAsc(query.type(), query.category());
+        } else {
+            items = foodItemRepository.findByTypeOrderByNameAsc(query.type());
+        }
+        return List.copyOf(items);
+    }
+
+    private record CatalogQuery(FoodItemType type, String category, String search) {}
+}
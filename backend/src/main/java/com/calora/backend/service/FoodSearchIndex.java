@@ -0,0 +1,79 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.FoodItem;
+import com.calora.backend.model.FoodItemType;
+import com.calora.backend.repository.FoodItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Name search over the food catalog, held entirely in memory. Built from {@link FoodItemRepository}
+ * once the application is ready and kept current through {@link #upsert} and {@link #remove}, so
+ * searches never touch the database. Type and category act as facets over the ranked matches.
+ */
+@Component
+public class FoodSearchIndex {
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    private final TrigramIndex index = new TrigramIndex();
+    private final Map<Long, FoodItem> items = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<FoodItem> all = foodItemRepository.findAll();
+        ready = false;
+        index.clear();
+        items.clear();
+        upsert(all);
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public void upsert(Collection<FoodItem> foodItems) {
+        for (FoodItem item : foodItems) {
+            if (item.getId() == null) continue;
+            items.put(item.getId(), item);
+            index.put(item.getId(), item.getName());
+        }
+    }
+
+    public void remove(Long id) {
+        items.remove(id);
+        index.remove(id);
+    }
+
+    /**
+     * Returns up to {@code limit} items of the given type whose name matches {@code search}, best
+     * match first. {@code category} is optional and must match exactly when present.
+     */
+    public List<FoodItem> search(FoodItemType type, String category, String search, int limit) {
+        return index.search(search, limit, id -> {
+                    FoodItem item = items.get(id);
+                    return item != null
+                            && item.getType() == type
+                            && (category == null || category.equals(item.getCategory()));
+                })
+                .stream()
+                .map(hit -> items.get(hit.id()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
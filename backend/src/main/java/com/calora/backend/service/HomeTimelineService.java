@@ -0,0 +1,275 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.ExplorePost;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user "following" timelines stored as post ids in {@code home_timeline}.
+ *
+ * <p>A new post is fanned out on write: one {@code INSERT ... SELECT} copies its id into the
+ * timeline of every follower, in the caller's transaction. Authors with more than
+ * {@code calora.timeline.celebrity-threshold} followers are skipped, because that insert would
+ * be too large; their posts are instead pulled at read time and merged into the page. Following
+ * someone backfills their recent posts and unfollowing removes them.
+ *
+ * <p>Each timeline is kept at {@code calora.timeline.max-entries} rows. A backfill trims the
+ * reader it wrote to straight away; fan-out adds at most one row per follower, so the authors who
+ * fanned out are remembered and a scheduled job trims only those followers whose timeline is over
+ * the limit. That memory does not survive a restart, so startup checks every timeline once. A trim is one seek to the reader's oldest kept entry and a range delete behind it,
+ * both on {@code idx_home_timeline_user_created}.
+ */
+@Service
+public class HomeTimelineService {
+
+    private static final String INSERT_OWN = """
+        insert into home_timeline (user_id, post_id, author_id, created_at)
+        values (:authorId, :postId, :authorId, :createdAt)
+    """;
+
+    private static final String FAN_OUT = """
+        insert into home_timeline (user_id, post_id, author_id, created_at)
+        select f.follower_id, :postId, :authorId, :createdAt
+        from explore_follows f
+        where f.following_id = :authorId
+    """;
+
+    private static final String BACKFILL = """
+        insert into home_timeline (user_id, post_id, author_id, created_at)
+        select :userId, p.id, p.user_id, p.created_at
+        from explore_posts p
+        where p.user_id = :authorId
+          and not exists (select 1 from home_timeline t where t.user_id = :userId and t.post_id = p.id)
+        order by p.created_at desc, p.id desc
+        limit :limit
+    """;
+
+    private static final String BACKFILL_ALL = """
+        insert into home_timeline (user_id, post_id, author_id, created_at)
+        select f.follower_id, p.id, p.user_id, p.created_at
+        from explore_follows f
+        join explore_posts p on p.user_id = f.following_id
+        left join user_social_stats s on s.user_id = f.following_id
+        where coalesce(s.followers, 0) <= :threshold
+        union
+        select p.user_id, p.id, p.user_id, p.created_at
+        from explore_posts p
+    """;
+
+    // The newest entry past the limit; it and everything older is dropped.
+    private static final String FIRST_OVER_LIMIT = """
+        select post_id, created_at from home_timeline
+        where user_id = :userId
+        order by created_at desc, post_id desc
+        limit 1 offset :maxEntries
+    """;
+
+    private static final String TRIM_READER = """
+        delete from home_timeline
+        where user_id = :userId
+          and (created_at < :createdAt or (created_at = :createdAt and post_id <= :postId))
+    """;
+
+    private static final String OVER_LIMIT_FOLLOWERS = """
+        select t.user_id
+        from home_timeline t
+        where t.user_id in (select f.follower_id from explore_follows f where f.following_id in (:authorIds))
+        group by t.user_id
+        having count(*) > :maxEntries
+    """;
+
+    private static final String OVER_LIMIT = """
+        select user_id from home_timeline
+        group by user_id
+        having count(*) > :maxEntries
+    """;
+
+    private static final String FOLLOWED_CELEBRITIES = """
+        select f.following_id
+        from explore_follows f
+        join user_social_stats s on s.user_id = f.following_id
+        where f.follower_id = :userId and s.followers > :threshold
+    """;
+
+    private static final String PAGE_CONDITION = " and (%1$s < :createdAt or (%1$s = :createdAt and %2$s < :id))";
+
+    private static final RowMapper<Entry> ENTRY = (rs, rowNum) ->
+            new Entry(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime());
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SocialStatsService socialStatsService;
+
+    @Value("${calora.timeline.celebrity-threshold:10000}")
+    private long celebrityThreshold;
+
+    @Value("${calora.timeline.max-entries:800}")
+    private int maxEntries;
+
+    // Authors fanned out since the last trim; their followers are the only timelines that grew.
+    private final Set<Long> fannedOutAuthors = ConcurrentHashMap.newKeySet();
+
+    /** Fans a new post out to its author and, unless the author is over the threshold, every follower. */
+    public void postCreated(ExplorePost post) {
+        Long authorId = post.getUser().getId();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("postId", post.getId())
+                .addValue("authorId", authorId)
+                .addValue("createdAt", Timestamp.valueOf(post.getCreatedAt()));
+        jdbcTemplate.update(INSERT_OWN, params);
+        if (!isCelebrity(authorId)) {
+            jdbcTemplate.update(FAN_OUT, params);
+            fannedOutAuthors.add(authorId);
+        }
+    }
+
+    /** Backfills the newly followed author's recent posts; over-threshold authors are read on demand instead. */
+    public void followed(Long followerId, Long followingId) {
+        if (!isCelebrity(followingId)) {
+            backfill(followerId, followingId);
+            trimReader(followerId);
+        }
+    }
+
+    public void unfollowed(Long followerId, Long followingId) {
+        jdbcTemplate.update("delete from home_timeline where user_id = :userId and author_id = :authorId",
+                new MapSqlParameterSource().addValue("userId", followerId).addValue("authorId", followingId));
+    }
+
+    /** Drops the user's own timeline and their posts from everyone else's. */
+    public void removeUser(Long userId) {
+        jdbcTemplate.update("delete from home_timeline where user_id = :userId or author_id = :userId",
+                new MapSqlParameterSource("userId", userId));
+    }
+
+    /** Rebuilds the timelines of the given users from their follows, e.g. after seeding. */
+    public void rebuild(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            jdbcTemplate.update("delete from home_timeline where user_id = :userId",
+                    new MapSqlParameterSource("userId", userId));
+            backfill(userId, userId);
+            for (Long authorId : jdbcTemplate.queryForList(
+                    "select following_id from explore_follows where follower_id = :userId",
+                    new MapSqlParameterSource("userId", userId), Long.class)) {
+                if (!isCelebrity(authorId)) {
+                    backfill(userId, authorId);
+                }
+            }
+            trimReader(userId);
+        }
+    }
+
+    /**
+     * Builds every timeline from the existing follows and posts the first time the table is used,
+     * then trims every timeline over the limit. Runs at startup, so it also catches timelines that
+     * grew from fan-outs the previous process remembered but never got to trim.
+     */
+    public void backfillIfEmpty() {
+        Integer existing = jdbcTemplate.queryForObject("select count(*) from home_timeline",
+                new MapSqlParameterSource(), Integer.class);
+        if (existing == null || existing == 0) {
+            jdbcTemplate.update(BACKFILL_ALL, new MapSqlParameterSource("threshold", celebrityThreshold));
+        }
+        jdbcTemplate.queryForList(OVER_LIMIT, new MapSqlParameterSource("maxEntries", maxEntries), Long.class)
+                .forEach(this::trimReader);
+    }
+
+    /** Trims the followers of the authors fanned out since the last run whose timeline is over the limit. */
+    @Scheduled(fixedDelayString = "${calora.timeline.trim-interval-ms:3600000}")
+    public void trim() {
+        if (fannedOutAuthors.isEmpty()) {
+            return;
+        }
+        List<Long> authorIds = new ArrayList<>(fannedOutAuthors);
+        fannedOutAuthors.removeAll(authorIds);
+        jdbcTemplate.queryForList(OVER_LIMIT_FOLLOWERS, new MapSqlParameterSource()
+                        .addValue("authorIds", authorIds)
+                        .addValue("maxEntries", maxEntries), Long.class)
+                .forEach(this::trimReader);
+    }
+
+    /** Drops the reader's entries past {@code calora.timeline.max-entries}, newest first. */
+    public void trimReader(Long userId) {
+        List<Entry> boundary = jdbcTemplate.query(FIRST_OVER_LIMIT, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("maxEntries", maxEntries), ENTRY);
+        if (boundary.isEmpty()) {
+            return;
+        }
+        Entry first = boundary.get(0);
+        jdbcTemplate.update(TRIM_READER, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("createdAt", Timestamp.valueOf(first.createdAt()))
+                .addValue("postId", first.postId()));
+    }
+
+    /**
+     * Up to {@code limit} entries of the user's timeline, newest first, strictly before the
+     * {@code (beforeCreatedAt, beforeId)} position when given. Stored entries are merged with the
+     * recent posts of followed authors that are over the fan-out threshold.
+     */
+    public List<Entry> readPage(Long userId, LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("limit", limit);
+        String condition = "";
+        if (beforeCreatedAt != null) {
+            params.addValue("createdAt", Timestamp.valueOf(beforeCreatedAt)).addValue("id", beforeId);
+            condition = PAGE_CONDITION;
+        }
+
+        List<Entry> pushed = jdbcTemplate.query(
+                "select post_id, created_at from home_timeline where user_id = :userId"
+                        + condition.formatted("created_at", "post_id")
+                        + " order by created_at desc, post_id desc limit :limit",
+                params, ENTRY);
+
+        List<Long> celebrities = jdbcTemplate.queryForList(FOLLOWED_CELEBRITIES,
+                new MapSqlParameterSource().addValue("userId", userId).addValue("threshold", celebrityThreshold),
+                Long.class);
+        if (celebrities.isEmpty()) {
+            return pushed;
+        }
+
+        params.addValue("authorIds", celebrities);
+        List<Entry> pulled = jdbcTemplate.query(
+                "select id, created_at from explore_posts where user_id in (:authorIds)"
+                        + condition.formatted("created_at", "id")
+                        + " order by created_at desc, id desc limit :limit",
+                params, ENTRY);
+
+        // A post can be in both lists if its author crossed the threshold after it was fanned out.
+        Map<Long, Entry> merged = new HashMap<>();
+        for (Entry entry : pushed) merged.put(entry.postId(), entry);
+        for (Entry entry : pulled) merged.putIfAbsent(entry.postId(), entry);
+        return merged.values().stream()
+                .sorted(Comparator.comparing(Entry::createdAt).thenComparing(Entry::postId).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private void backfill(Long userId, Long authorId) {
+        jdbcTemplate.update(BACKFILL, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("authorId", authorId)
+                .addValue("limit", maxEntries));
+    }
+
+    private boolean isCelebrity(Long userId) {
+        return socialStatsService.statsFor(userId).getFollowers() > celebrityThreshold;
+    }
+
+    public record Entry(Long postId, LocalDateTime createdAt) {}
+}
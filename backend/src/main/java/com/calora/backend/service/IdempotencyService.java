@@ -0,0 +1,244 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.IdempotencyRecord;
+import com.calora.backend.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response for a write request that is retried with the same
+ * {@code Idempotency-Key} header instead of executing it again.
+ *
+ * <p>Successful (2xx) responses are stored in {@code idempotency_keys} as part of the caller's
+ * transaction, so the key is committed together with the row it created, and in a bounded TTL
+ * cache once that transaction commits. Error responses are not stored and may be retried. A retry
+ * that arrives while the first request is still running gets a 409.
+ *
+ * <p>A request claims its key in memory before looking for a stored response, so a retry cannot
+ * read the table before the first request commits and then run the action after it finished. A
+ * request that still loses the insert race on the unique key, e.g. to another instance, rolls its
+ * transaction back and answers with the response that was committed.
+ *
+ * <p>Keys are scoped to the endpoint and the requesting user, so one user's key never replays
+ * another user's response. The SHA-256 of the request body is stored with the response, and a
+ * key reused with a different body gets a 422 rather than the earlier response.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private static final String INSERT_RECORD = """
+        insert into idempotency_keys
+            (scope, user_id, idempotency_key, request_hash, status_code, response_body, created_at, expires_at)
+        values (?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UniqueInserts uniqueInserts;
+
+    private final Duration ttl;
+    private final BoundedCache<String, StoredResponse> cache;
+    private final Map<String, Boolean> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(@Value("${calora.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${calora.idempotency.cache.max-entries:10000}") int maxEntries) {
+        this.ttl = Duration.ofHours(ttlHours);
+        this.cache = new BoundedCache<>(maxEntries, ttl);
+    }
+
+    /**
+     * Runs {@code action} unless a response for ({@code scope}, {@code userId}, {@code key}) was
+     * already stored for the same {@code request}. Requests without a key are executed as usual.
+     */
+    public ResponseEntity<?> execute(String scope, Long userId, Object request, String key,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String normalizedKey = key.trim();
+        if (normalizedKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        // Requests that do not name a user are rejected by the action; they share the 0 owner.
+        Long owner = userId != null ? userId : 0L;
+        String requestHash = hash(request);
+        String cacheKey = scope + "\n" + owner + "\n" + normalizedKey;
+        StoredResponse stored = cache.get(cacheKey);
+        if (stored != null) {
+            return stored.replay(requestHash);
+        }
+
+        if (inFlight.putIfAbsent(cacheKey, Boolean.TRUE) != null) {
+            return inProgress();
+        }
+
+        StoredResponse result = null;
+        try {
+            // Checked again now that the key is claimed: the request that held it may have just committed.
+            stored = cache.get(cacheKey);
+            if (stored != null) {
+                return stored.replay(requestHash);
+            }
+            Optional<IdempotencyRecord> existing = findLive(scope, owner, normalizedKey);
+            if (existing.isPresent() && existing.get().getExpiresAt().isAfter(LocalDateTime.now())) {
+                stored = StoredResponse.of(existing.get());
+                cache.put(cacheKey, stored);
+                return stored.replay(requestHash);
+            }
+
+            ResponseEntity<?> response = action.get();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                return response;
+            }
+            result = new StoredResponse(response.getStatusCode().value(), toJson(response.getBody()), requestHash);
+            if (store(scope, owner, normalizedKey, result, existing.orElse(null))) {
+                return response;
+            }
+
+            // Another request stored this key first; undo this one and answer with what it stored.
+            result = null;
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            }
+            return findLive(scope, owner, normalizedKey)
+                    .map(record -> StoredResponse.of(record).replay(requestHash))
+                    .orElseGet(IdempotencyService::inProgress);
+        } finally {
+            afterCompletion(cacheKey, result);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${calora.idempotency.cleanup-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        cache.evictExpired();
+    }
+
+    public BoundedCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Publishes the stored response to the cache and releases the in-flight marker, but only once
+     * the surrounding transaction has finished, so a retry never sees a key whose insert could
+     * still roll back.
+     */
+    private void afterCompletion(String cacheKey, StoredResponse result) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (result != null) {
+                cache.put(cacheKey, result);
+            }
+            inFlight.remove(cacheKey);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED && result != null) {
+                    cache.put(cacheKey, result);
+                }
+                inFlight.remove(cacheKey);
+            }
+        });
+    }
+
+    private Optional<IdempotencyRecord> findLive(String scope, Long owner, String key) {
+        return idempotencyRecordRepository.findByScopeAndUserIdAndIdempotencyKey(scope, owner, key);
+    }
+
+    /**
+     * Stores the response, overwriting an expired record for the same key. Returns false when a
+     * record for the key was inserted concurrently.
+     */
+    private boolean store(String scope, Long owner, String key, StoredResponse result, IdempotencyRecord expired) {
+        LocalDateTime now = LocalDateTime.now();
+        if (expired != null) {
+            expired.setRequestHash(result.requestHash());
+            expired.setStatusCode(result.statusCode());
+            expired.setResponseBody(result.body());
+            expired.setCreatedAt(now);
+            expired.setExpiresAt(now.plus(ttl));
+            idempotencyRecordRepository.save(expired);
+            return true;
+        }
+        return uniqueInserts.insertIfAbsent(INSERT_RECORD, scope, owner, key, result.requestHash(),
+                result.statusCode(), result.body(), Timestamp.valueOf(now), Timestamp.valueOf(now.plus(ttl)));
+    }
+
+    private static ResponseEntity<?> inProgress() {
+        return ResponseEntity.status(409).body("A request with this " + HEADER + " is still in progress");
+    }
+
+    private String toJson(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response for idempotent replay", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not hash request for idempotency check", e);
+        }
+    }
+
+    private record StoredResponse(int statusCode, String body, String requestHash) {
+        static StoredResponse of(IdempotencyRecord record) {
+            return new StoredResponse(record.getStatusCode(), record.getResponseBody(), record.getRequestHash());
+        }
+
+        ResponseEntity<?> replay(String incomingHash) {
+            if (requestHash != null && !requestHash.equals(incomingHash)) {
+                return ResponseEntity.unprocessableEntity()
+                        .body(HEADER + " was already used with a different request");
+            }
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(statusCode).header(REPLAYED_HEADER, "true");
+            if (body == null) {
+                return builder.build();
+            }
+            return builder.contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.Activity;
+import com.calora.backend.model.Meal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Moves meals and activities older than the archive horizon out of the live tables into
+ * {@code meals_archive} and {@code activities_archive}, and reads them back for long-range exports.
+ *
+ * <p>On PostgreSQL both tables are partitioned by month (see {@code db/vendor/postgresql}); a run
+ * creates any missing partitions from the cutoff to a few months ahead, pulling rows for those
+ * months out of the default partition, and re-attaches every month that ended before the cutoff to
+ * the archive table, which is a catalog change rather than a copy. Default-partition rows older
+ * than the cutoff are moved to the archive's default partition. On other databases the
+ * rows are copied and deleted in one transaction. Daily rollups are left alone, so dashboard and
+ * export totals still cover archived days.
+ */
+@Service
+public class JournalArchiveService {
+
+    private static final int PARTITION_MONTHS_AHEAD = 3;
+    private static final int FETCH_SIZE = 500;
+
+    private static final String MEAL_COLUMNS =
+            "id, name, calories, protein, carbs, fats, date, meal_type, quantity, unit, source, user_id";
+    private static final String ACTIVITY_COLUMNS = "id, type, duration, calories_burned, date, user_id";
+
+    private static final RowMapper<Meal> MEAL_ROW = (rs, rowNum) -> {
+        Meal meal = new Meal();
+        meal.setId(rs.getLong("id"));
+        meal.setName(rs.getString("name"));
+        meal.setCalories(rs.getObject("calories", Integer.class));
+        meal.setProtein(rs.getObject("protein", Integer.class));
+        meal.setCarbs(rs.getObject("carbs", Integer.class));
+        meal.setFats(rs.getObject("fats", Integer.class));
+        meal.setDate(toLocalDateTime(rs.getTimestamp("date")));
+        meal.setMealType(rs.getString("meal_type"));
+        meal.setQuantity(rs.getObject("quantity", Double.class));
+        meal.setUnit(rs.getString("unit"));
+        meal.setSource(rs.getString("source"));
+        return meal;
+    };
+
+    private static final RowMapper<Activity> ACTIVITY_ROW = (rs, rowNum) -> {
+        Activity activity = new Activity();
+        activity.setId(rs.getLong("id"));
+        activity.setType(rs.getString("type"));
+        activity.setDuration(rs.getObject("duration", Integer.class));
+        activity.setCaloriesBurned(rs.getObject("calories_burned", Integer.class));
+        activity.setDate(toLocalDateTime(rs.getTimestamp("date")));
+        return activity;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final int horizonMonths;
+    private volatile Boolean partitioned;
+
+    public JournalArchiveService(@Value("${calora.archive.horizon-months:12}") int horizonMonths) {
+        this.horizonMonths = Math.max(1, horizonMonths);
+    }
+
+    /** The first day that is still guaranteed to be in the live tables. */
+    public LocalDate archiveCutoff() {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(horizonMonths);
+    }
+
+    /** Whether a range starting at {@code startDate} may include archived rows. */
+    public boolean reachesArchive(LocalDate startDate) {
+        return startDate.isBefore(archiveCutoff());
+    }
+
+    @Scheduled(cron = "${calora.archive.cron:0 30 3 * * *}")
+    public void archiveOnSchedule() {
+        archive();
+    }
+
+    public ArchiveRun archive() {
+        LocalDate cutoff = archiveCutoff();
+        if (isPartitioned()) {
+            LocalDate lastMonth = LocalDate.now().withDayOfMonth(1).plusMonths(PARTITION_MONTHS_AHEAD);
+            int created = ensurePartitions("meals", cutoff, lastMonth) + ensurePartitions("activities", cutoff, lastMonth);
+            int moved = archivePartitions("meals", cutoff) + archivePartitions("activities", cutoff);
+            return new ArchiveRun(cutoff, created, moved, 0, 0);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer meals = transaction.execute(status -> moveRows("meals", MEAL_COLUMNS, cutoff));
+        Integer activities = transaction.execute(status -> moveRows("activities", ACTIVITY_COLUMNS, cutoff));
+        return new ArchiveRun(cutoff, 0, 0, meals != null ? meals : 0, activities != null ? activities : 0);
+    }
+
+    /**
+     * Streams the user's archived meals in the range, newest first, without loading them all. Must
+     * run inside a transaction for the fetch size to take effect on PostgreSQL.
+     */
+    public void forEachArchivedMeal(Long userId, LocalDateTime start, LocalDateTime end, Consumer<Meal> action) {
+        streamingTemplate().query(
+                "select " + MEAL_COLUMNS + " from meals_archive where user_id = ? and date between ? and ? order by date desc",
+                rs -> { action.accept(MEAL_ROW.mapRow(rs, 0)); },
+                userId, Timestamp.valueOf(start), Timestamp.valueOf(end));
+    }
+
+    public void forEachArchivedActivity(Long userId, LocalDateTime start, LocalDateTime end, Consumer<Activity> action) {
+        streamingTemplate().query(
+                "select " + ACTIVITY_COLUMNS + " from activities_archive where user_id = ? and date between ? and ? order by date desc",
+                rs -> { action.accept(ACTIVITY_ROW.mapRow(rs, 0)); },
+                userId, Timestamp.valueOf(start), Timestamp.valueOf(end));
+    }
+
+    public List<Meal> findArchivedMeals(Long userId, LocalDateTime start, LocalDateTime end) {
+        return jdbcTemplate.query(
+                "select " + MEAL_COLUMNS + " from meals_archive where user_id = ? and date between ? and ? order by date desc",
+                MEAL_ROW, userId, Timestamp.valueOf(start), Timestamp.valueOf(end));
+    }
+
+    public List<Activity> findArchivedActivities(Long userId, LocalDateTime start, LocalDateTime end) {
+        return jdbcTemplate.query(
+                "select " + ACTIVITY_COLUMNS + " from activities_archive where user_id = ? and date between ? and ? order by date desc",
+                ACTIVITY_ROW, userId, Timestamp.valueOf(start), Timestamp.valueOf(end));
+    }
+
+    /** Removes the user's archived rows; runs in the caller's transaction. */
+    public void deleteByUserId(Long userId) {
+        jdbcTemplate.update("delete from meals_archive where user_id = ?", userId);
+        jdbcTemplate.update("delete from activities_archive where user_id = ?", userId);
+    }
+
+    private int ensurePartitions(String table, LocalDate firstMonth, LocalDate lastMonth) {
+        Integer created = jdbcTemplate.queryForObject("select calora_ensure_month_partitions(?, ?, ?)",
+                Integer.class, table, firstMonth, lastMonth);
+        return created != null ? created : 0;
+    }
+
+    private int archivePartitions(String table, LocalDate cutoff) {
+        Integer moved = jdbcTemplate.queryForObject("select calora_archive_month_partitions(?, ?, ?)",
+                Integer.class, table, table + "_archive", cutoff);
+        return moved != null ? moved : 0;
+    }
+
+    /**
+     * Copies then deletes the rows dated before {@code cutoff}. Both statements are bounded by the
+     * highest id seen up front, so a row inserted concurrently is never deleted without being copied.
+     */
+    private int moveRows(String table, String columns, LocalDate cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff.atStartOfDay());
+        Long maxId = jdbcTemplate.queryForObject(
+                "select max(id) from " + table + " where date < ?", Long.class, before);
+        if (maxId == null) {
+            return 0;
+        }
+        jdbcTemplate.update("insert into " + table + "_archive (" + columns + ") select " + columns
+                + " from " + table + " where date < ? and id <= ?", before, maxId);
+        return jdbcTemplate.update("delete from " + table + " where date < ? and id <= ?", before, maxId);
+    }
+
+    private boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            partitioned = result;
+        }
+        return result;
+    }
+
+    private JdbcTemplate streamingTemplate() {
+        JdbcTemplate template = new JdbcTemplate(jdbcTemplate.getDataSource());
+        template.setFetchSize(FETCH_SIZE);
+        return template;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * What one archival run did: on PostgreSQL the number of monthly partitions created and moved,
+     * elsewhere the number of rows moved.
+     */
+    public record ArchiveRun(
+            LocalDate cutoff,
+            int partitionsCreated,
+            int partitionsArchived,
+            int mealsArchived,
+            int activitiesArchived
+    ) {}
+}
@@ -0,0 +1,94 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.Activity;
+import com.calora.backend.model.Meal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts meals and activities as a single JDBC batch and writes the generated ids back onto the
+ * entities. Used by the batch logging endpoints, where going through JPA would issue one insert
+ * per row because of {@code GenerationType.IDENTITY}. Runs in the caller's transaction.
+ */
+@Service
+public class JournalBatchWriter {
+
+    private static final String INSERT_MEAL = """
+        insert into meals (name, calories, protein, carbs, fats, date, meal_type, quantity, unit, source, user_id)
+        values (:name, :calories, :protein, :carbs, :fats, :date, :mealType, :quantity, :unit, :source, :userId)
+    """;
+
+    private static final String INSERT_ACTIVITY = """
+        insert into activities (type, duration, calories_burned, date, user_id)
+        values (:type, :duration, :caloriesBurned, :date, :userId)
+    """;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insertMeals(List<Meal> meals) {
+        if (meals.isEmpty()) return;
+
+        SqlParameterSource[] params = new SqlParameterSource[meals.size()];
+        for (int i = 0; i < meals.size(); i++) {
+            Meal meal = meals.get(i);
+            params[i] = new MapSqlParameterSource()
+                    .addValue("name", meal.getName())
+                    .addValue("calories", meal.getCalories())
+                    .addValue("protein", meal.getProtein())
+                    .addValue("carbs", meal.getCarbs())
+                    .addValue("fats", meal.getFats())
+                    .addValue("date", meal.getDate())
+                    .addValue("mealType", meal.getMealType())
+                    .addValue("quantity", meal.getQuantity())
+                    .addValue("unit", meal.getUnit())
+                    .addValue("source", meal.getSource())
+                    .addValue("userId", meal.getUser().getId());
+        }
+
+        List<Long> ids = insert(INSERT_MEAL, params);
+        for (int i = 0; i < meals.size(); i++) {
+            meals.get(i).setId(ids.get(i));
+        }
+    }
+
+    public void insertActivities(List<Activity> activities) {
+        if (activities.isEmpty()) return;
+
+        SqlParameterSource[] params = new SqlParameterSource[activities.size()];
+        for (int i = 0; i < activities.size(); i++) {
+            Activity activity = activities.get(i);
+            params[i] = new MapSqlParameterSource()
+                    .addValue("type", activity.getType())
+                    .addValue("duration", activity.getDuration())
+                    .addValue("caloriesBurned", activity.getCaloriesBurned())
+                    .addValue("date", activity.getDate())
+                    .addValue("userId", activity.getUser().getId());
+        }
+
+        List<Long> ids = insert(INSERT_ACTIVITY, params);
+        for (int i = 0; i < activities.size(); i++) {
+            activities.get(i).setId(ids.get(i));
+        }
+    }
+
+    private List<Long> insert(String sql, SqlParameterSource[] params) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(sql, params, keyHolder, new String[]{ "id" });
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != params.length) {
+            throw new IllegalStateException("Expected " + params.length + " generated ids but got " + keys.size());
+        }
+        return keys.stream()
+                .map(row -> ((Number) row.values().iterator().next()).longValue())
+                .toList();
+    }
+}
@@ -0,0 +1,145 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.UserSocialStats;
+import com.calora.backend.repository.ExploreFollowRepository;
+import com.calora.backend.repository.ExplorePostRepository;
+import com.calora.backend.repository.UserSocialStatsRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Keeps follower, following and post counts per user in {@code user_social_stats} so user
+ * summaries can be built from one row instead of three count queries. Rows are created at signup
+ * and backfilled for existing users at startup, then maintained by deltas. Reads never write: a
+ * user without a row reads as all zeros.
+ */
+@Service
+public class SocialStatsService {
+
+    private static final String INSERT_STATS =
+            "insert into user_social_stats (user_id, followers, following, posts) values (?, ?, ?, ?)";
+
+    private static final String BACKFILL_MISSING = """
+        insert into user_social_stats (user_id, followers, following, posts)
+        select u.id,
+               (select count(*) from explore_follows f where f.following_id = u.id),
+               (select count(*) from explore_follows f where f.follower_id = u.id),
+               (select count(*) from explore_posts p where p.user_id = u.id)
+        from users u
+        where not exists (select 1 from user_social_stats s where s.user_id = u.id)
+    """;
+
+    @Autowired
+    private UserSocialStatsRepository statsRepository;
+
+    @Autowired
+    private ExploreFollowRepository followRepository;
+
+    @Autowired
+    private ExplorePostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UniqueInserts uniqueInserts;
+
+    /** Creates the empty stats row of a newly registered user. */
+    @Transactional
+    public void userCreated(Long userId) {
+        uniqueInserts.insertIfAbsent(INSERT_STATS, userId, 0L, 0L, 0L);
+    }
+
+    /** Counts the stats of every user that has no row yet, in one statement. */
+    @Transactional
+    public int backfillMissing() {
+        return jdbcTemplate.update(BACKFILL_MISSING);
+    }
+
+    /**
+     * Must be called before the follow row is written so a lazily created stats row does not
+     * count the new follow twice.
+     */
+    @Transactional
+    public void beforeFollowChange(Long followerId, Long followingId) {
+        ensure(followerId);
+        ensure(followingId);
+    }
+
+    @Transactional
+    public void applyFollowChange(Long followerId, Long followingId, long delta) {
+        statsRepository.addFollowing(followerId, delta);
+        statsRepository.addFollowers(followingId, delta);
+    }
+
+    @Transactional
+    public void beforePostChange(Long userId) {
+        ensure(userId);
+    }
+
+    @Transactional
+    public void applyPostChange(Long userId, long delta) {
+        statsRepository.addPosts(userId, delta);
+    }
+
+    /**
+     * Adjusts the counters of everyone connected to {@code userId}. Must run before the user's
+     * follow rows are deleted.
+     */
+    @Transactional
+    public void removeUser(Long userId) {
+        statsRepository.decrementFollowingOfFollowers(userId);
+        statsRepository.decrementFollowersOfFollowing(userId);
+        statsRepository.deleteById(userId);
+    }
+
+    public Map<Long, UserSocialStats> statsFor(Collection<Long> userIds) {
+        Map<Long, UserSocialStats> stats = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return stats;
+        }
+        for (UserSocialStats row : statsRepository.findAllById(new LinkedHashSet<>(userIds))) {
+            stats.put(row.getUserId(), row);
+        }
+        for (Long userId : userIds) {
+            stats.computeIfAbsent(userId, id -> new UserSocialStats(id, 0L, 0L, 0L));
+        }
+        return stats;
+    }
+
+    public UserSocialStats statsFor(Long userId) {
+        return statsFor(List.of(userId)).get(userId);
+    }
+
+    @Transactional
+    public void rebuild(Collection<Long> userIds) {
+        List<UserSocialStats> rows = new ArrayList<>();
+        for (Long userId : userIds) {
+            rows.add(countFromSource(userId));
+        }
+        statsRepository.saveAll(rows);
+    }
+
+    private void ensure(Long userId) {
+        if (statsRepository.existsById(userId)) {
+            return;
+        }
+        UserSocialStats counted = countFromSource(userId);
+        // Loses harmlessly to a concurrent write that created the row first.
+        uniqueInserts.insertIfAbsent(INSERT_STATS, userId, counted.getFollowers(), counted.getFollowing(),
+                counted.getPosts());
+    }
+
+    private UserSocialStats countFromSource(Long userId) {
+        return new UserSocialStats(
+                userId,
+                followRepository.countByFollowingId(userId),
+                followRepository.countByFollowerId(userId),
+                postRepository.countByUserId(userId)
+        );
+    }
+}
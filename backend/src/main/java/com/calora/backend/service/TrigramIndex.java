@@ -0,0 +1,264 @@
+package com.calora.backend.service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory text index over documents identified by a {@code long} id. Each document has one or
+ * more text fields that are normalized (lower case, accents and punctuation stripped) and indexed
+ * twice: by whole token in a sorted map for prefix lookups, and by character trigram for infix and
+ * typo-tolerant matching.
+ *
+ * <p>Results are ranked exact match, then field prefix, then token prefix, then substring, then
+ * trigram similarity, and the best {@code limit} are kept in a bounded heap. When the prefix stage
+ * already yields {@code limit} token-prefix hits or better the trigram stage is skipped, since
+ * nothing it finds could outrank them.
+ *
+ * <p>Candidate collection is bounded so a search never scores every document. The prefix stage
+ * walks matching tokens in sorted order, so every document carrying the query token itself is
+ * scored before longer tokens, and stops after {@link #MAX_PREFIX_CANDIDATES} candidates. The
+ * trigram stage visits the rarest query grams first and takes at most
+ * {@link #MAX_CANDIDATES_PER_GRAM} candidates from each posting. The filter is applied while
+ * collecting, so only ids it accepts count towards either cap and a narrow facet is not crowded
+ * out by documents it would reject.
+ */
+public class TrigramIndex {
+
+    private static final double EXACT = 1000;
+    private static final double FIELD_PREFIX = 800;
+    private static final double TOKEN_PREFIX = 600;
+    private static final double SUBSTRING = 400;
+    private static final double FUZZY = 300;
+    private static final double MIN_SIMILARITY = 0.35;
+    private static final int MAX_PREFIX_CANDIDATES = 5_000;
+    private static final int MAX_CANDIDATES_PER_GRAM = 2_000;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final TreeMap<String, Set<Long>> tokens = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long id, String... fields) {
+        String[] normalized = Arrays.stream(fields)
+                .map(TrigramIndex::normalize)
+                .filter(field -> !field.isEmpty())
+                .toArray(String[]::new);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            documents.put(id, new Document(normalized));
+            for (String field : normalized) {
+                for (String token : field.split(" ")) {
+                    tokens.computeIfAbsent(token, key -> new HashSet<>()).add(id);
+                }
+                for (String gram : trigramsOf(field)) {
+                    trigrams.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            tokens.clear();
+            trigrams.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Hit> search(String query, int limit, LongPredicate filter) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+
+            // Stage 1: token prefix via the sorted token map, the query token's own posting first.
+            String lastToken = q.substring(q.lastIndexOf(' ') + 1);
+            int examined = 0;
+            int prefixHits = 0;
+            prefixWalk:
+            for (Set<Long> ids : tokens.subMap(lastToken, true, lastToken + Character.MAX_VALUE, false).values()) {
+                for (Long id : ids) {
+                    if (scores.containsKey(id) || !filter.test(id)) continue;
+                    if (++examined > MAX_PREFIX_CANDIDATES) {
+                        break prefixWalk;
+                    }
+                    double score = score(q, documents.get(id), 0, 0);
+                    if (score > 0) {
+                        scores.put(id, score);
+                        if (score >= TOKEN_PREFIX) {
+                            prefixHits++;
+                        }
+                    }
+                }
+            }
+
+            // Stage 2: infix and fuzzy matches via trigram overlap, only if stage 1 cannot fill the page.
+            Set<String> queryGrams = trigramsOf(q);
+            if (prefixHits < limit && !queryGrams.isEmpty()) {
+                List<Set<Long>> postings = new ArrayList<>();
+                for (String gram : queryGrams) {
+                    Set<Long> ids = trigrams.get(gram);
+                    if (ids != null) {
+                        postings.add(ids);
+                    }
+                }
+                // Rarest grams first: they are the most selective and the cheapest to read in full.
+                postings.sort(Comparator.comparingInt(Set::size));
+
+                Map<Long, Integer> overlap = new HashMap<>();
+                for (Set<Long> ids : postings) {
+                    int read = 0;
+                    for (Long id : ids) {
+                        if (!overlap.containsKey(id) && (scores.containsKey(id) || !filter.test(id))) continue;
+                        if (++read > MAX_CANDIDATES_PER_GRAM) break;
+                        overlap.merge(id, 1, Integer::sum);
+                    }
+                }
+                for (Map.Entry<Long, Integer> entry : overlap.entrySet()) {
+                    Long id = entry.getKey();
+                    double score = score(q, documents.get(id), entry.getValue(), queryGrams.size());
+                    if (score > 0) {
+                        scores.put(id, score);
+                    }
+                }
+            }
+
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}@.]+", " ")
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+
+    private void removeLocked(long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String field : previous.fields()) {
+            for (String token : field.split(" ")) {
+                removePosting(tokens, token, id);
+            }
+            for (String gram : trigramsOf(field)) {
+                removePosting(trigrams, gram, id);
+            }
+        }
+    }
+
+    private void removePosting(Map<String, Set<Long>> postings, String key, long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids == null) return;
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private double score(String q, Document document, int overlap, int queryGramCount) {
+        double best = 0;
+        for (int i = 0; i < document.fields().length; i++) {
+            String field = document.fields()[i];
+            double score;
+            if (field.equals(q)) {
+                score = EXACT;
+            } else if (field.startsWith(q)) {
+                score = FIELD_PREFIX;
+            } else if (field.contains(" " + q) || (q.indexOf(' ') < 0 && hasTokenWithPrefix(field, q))) {
+                score = TOKEN_PREFIX;
+            } else if (field.contains(q)) {
+                score = SUBSTRING;
+            } else if (overlap > 0) {
+                double dice = (2.0 * overlap) / (queryGramCount + document.gramCounts()[i]);
+                score = dice >= MIN_SIMILARITY ? FUZZY * dice : 0;
+            } else {
+                score = 0;
+            }
+            // Prefer shorter fields among equal match classes.
+            if (score > 0) {
+                score += 1.0 / (1 + field.length());
+            }
+            best = Math.max(best, score);
+        }
+        return best;
+    }
+
+    private boolean hasTokenWithPrefix(String field, String prefix) {
+        for (String token : field.split(" ")) {
+            if (token.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Hit> topK(Map<Long, Double> scores, int limit) {
+        PriorityQueue<Hit> heap = new PriorityQueue<>(Comparator.comparingDouble(Hit::score).thenComparing(Hit::id, Comparator.reverseOrder()));
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.offer(new Hit(entry.getKey(), entry.getValue()));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::id));
+        return hits;
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        String padded = " " + text + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private record Document(String[] fields, int[] gramCounts) {
+        Document(String[] fields) {
+            this(fields, Arrays.stream(fields).mapToInt(field -> trigramsOf(field).size()).toArray());
+        }
+    }
+
+    public record Hit(long id, double score) {}
+}
@@ -0,0 +1,63 @@
+package com.calora.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * Inserts a row that may already have been created by a concurrent transaction. The insert runs
+ * under a savepoint; if it loses the race on a unique key the savepoint is rolled back, so the
+ * surrounding transaction stays usable (PostgreSQL would otherwise abort it), and the caller can
+ * apply its change to the row the other transaction created.
+ *
+ * <p>Used by the update-then-insert counters: the update handles the common case in one
+ * statement, and this covers the first write for a key.
+ */
+@Component
+public class UniqueInserts {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Returns false, leaving the transaction as it was, when a row with the same unique key exists. */
+    public boolean insertIfAbsent(String sql, Object... args) {
+        Boolean inserted = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                if (!isUniqueViolation(e)) {
+                    throw e;
+                }
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                return false;
+            }
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(inserted);
+    }
+
+    private static boolean isUniqueViolation(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            if (UNIQUE_VIOLATION.equals(current.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * People search over email, name and handle, held in memory in a {@link TrigramIndex}. Built from
+ * {@code users} once the application is ready and kept current on signup, profile update and
+ * deletion, so a search is a top-K lookup whose cost depends on the query rather than the number
+ * of users. Only ids are returned; callers load the matching rows in one batch.
+ */
+@Component
+public class UserSearchIndex {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TrigramIndex index = new TrigramIndex();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        index.clear();
+        jdbcTemplate.query("select id, email, name, handle from users", rs -> {
+            put(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+        });
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /** Indexes a saved user once the surrounding transaction commits, or immediately outside one. */
+    public void upsert(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        long id = user.getId();
+        String email = user.getEmail();
+        String name = user.getName();
+        String handle = user.getHandle();
+        afterCommit(() -> put(id, email, name, handle));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> index.remove(id));
+    }
+
+    /** Up to {@code limit} user ids best matching {@code query}, excluding {@code excludeId} when given. */
+    public List<Long> search(String query, int limit, Long excludeId) {
+        return index.search(stripHandlePrefix(query), limit, id -> excludeId == null || id != excludeId)
+                .stream()
+                .map(TrigramIndex.Hit::id)
+                .toList();
+    }
+
+    private void put(long id, String email, String name, String handle) {
+        index.put(id, email, name, stripHandlePrefix(handle));
+    }
+
+    // "@alex" and "alex" should find the same handle.
+    private static String stripHandlePrefix(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.startsWith("@") ? trimmed.substring(1) : trimmed;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
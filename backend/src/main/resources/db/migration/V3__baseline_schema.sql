@@ -0,0 +1,157 @@
+-- Baseline for every table the application maps. Written with IF NOT EXISTS so it applies both to
+-- a fresh database (after V1/V2) and to databases that were created by Hibernate's ddl-auto=update
+-- before Flyway was enabled (baselined at version 2). Portable across H2 and PostgreSQL.
+
+ALTER TABLE users ALTER COLUMN name DROP NOT NULL;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS password VARCHAR(255);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS role VARCHAR(32);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS profile_picture VARCHAR(255);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS goal VARCHAR(255);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS daily_calorie_target INTEGER;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS budget INTEGER;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS is_premium BOOLEAN;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS premium_expires_at DATE;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS handle VARCHAR(255);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS title VARCHAR(255);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS avatar_color VARCHAR(255);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS age INTEGER;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS gender VARCHAR(255);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS height DOUBLE PRECISION;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS weight DOUBLE PRECISION;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS activity_level VARCHAR(255);
+
+CREATE TABLE IF NOT EXISTS meals (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    calories INTEGER,
+    protein INTEGER,
+    carbs INTEGER,
+    fats INTEGER,
+    date TIMESTAMP(6),
+    meal_type VARCHAR(255),
+    quantity DOUBLE PRECISION,
+    unit VARCHAR(255),
+    source VARCHAR(255),
+    user_id BIGINT NOT NULL REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS activities (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type VARCHAR(255),
+    duration INTEGER,
+    calories_burned INTEGER,
+    date TIMESTAMP(6),
+    user_id BIGINT NOT NULL REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS food_items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    calories INTEGER,
+    protein DOUBLE PRECISION,
+    carbs DOUBLE PRECISION,
+    fats DOUBLE PRECISION,
+    category VARCHAR(255),
+    serving_size VARCHAR(255),
+    type VARCHAR(32)
+);
+
+CREATE TABLE IF NOT EXISTS device_connections (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    provider VARCHAR(255) NOT NULL,
+    connected BOOLEAN NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS explore_posts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    type VARCHAR(32),
+    title VARCHAR(255),
+    summary VARCHAR(1200),
+    calories INTEGER,
+    protein INTEGER,
+    carbs INTEGER,
+    fats INTEGER,
+    duration INTEGER,
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS explore_likes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    post_id BIGINT NOT NULL REFERENCES explore_posts (id),
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS explore_reactions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    post_id BIGINT NOT NULL REFERENCES explore_posts (id),
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    emoji VARCHAR(255),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS explore_comments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    post_id BIGINT NOT NULL REFERENCES explore_posts (id),
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    text VARCHAR(800),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS explore_follows (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    follower_id BIGINT NOT NULL REFERENCES users (id),
+    following_id BIGINT NOT NULL REFERENCES users (id),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS explore_messages (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    from_user_id BIGINT NOT NULL REFERENCES users (id),
+    to_user_id BIGINT NOT NULL REFERENCES users (id),
+    text VARCHAR(1000),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS explore_threads (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    counterpart_id BIGINT NOT NULL,
+    last_message_id BIGINT,
+    last_text VARCHAR(1000),
+    last_at TIMESTAMP(6),
+    unread_count INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS daily_rollups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    calories_consumed INTEGER NOT NULL DEFAULT 0,
+    protein_consumed INTEGER NOT NULL DEFAULT 0,
+    carbs_consumed INTEGER NOT NULL DEFAULT 0,
+    fats_consumed INTEGER NOT NULL DEFAULT 0,
+    calories_burned INTEGER NOT NULL DEFAULT 0,
+    meal_count INTEGER NOT NULL DEFAULT 0,
+    activity_count INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS user_social_stats (
+    user_id BIGINT PRIMARY KEY,
+    followers BIGINT NOT NULL DEFAULT 0,
+    following BIGINT NOT NULL DEFAULT 0,
+    posts BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    scope VARCHAR(64) NOT NULL,
+    idempotency_key VARCHAR(200) NOT NULL,
+    status_code INTEGER NOT NULL,
+    response_body VARCHAR(1000000),
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL
+);
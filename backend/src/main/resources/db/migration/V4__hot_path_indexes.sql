@@ -0,0 +1,46 @@
+-- Unique keys that make toggles and counters safe to write as upserts, and composite indexes for
+-- the hot read paths. Duplicates that older schemas allowed are removed first (oldest row wins).
+
+DELETE FROM explore_likes
+WHERE id NOT IN (SELECT MIN(id) FROM explore_likes GROUP BY post_id, user_id);
+
+DELETE FROM explore_reactions
+WHERE id NOT IN (SELECT MIN(id) FROM explore_reactions GROUP BY post_id, user_id);
+
+DELETE FROM explore_follows
+WHERE id NOT IN (SELECT MIN(id) FROM explore_follows GROUP BY follower_id, following_id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_explore_likes_post_user ON explore_likes (post_id, user_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_explore_reactions_post_user ON explore_reactions (post_id, user_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_explore_follows_pair ON explore_follows (follower_id, following_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_explore_threads_pair ON explore_threads (user_id, counterpart_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_daily_rollups_user_date ON daily_rollups (user_id, date);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_idempotency_keys_scope_key ON idempotency_keys (scope, idempotency_key);
+
+-- Journal range reads: findByUserIdAndDateBetweenOrderByDateDesc and the export cursors.
+CREATE INDEX IF NOT EXISTS idx_meals_user_date ON meals (user_id, date);
+CREATE INDEX IF NOT EXISTS idx_activities_user_date ON activities (user_id, date);
+
+-- Explore feed, per-post interactions and per-user cleanup.
+CREATE INDEX IF NOT EXISTS idx_explore_posts_created ON explore_posts (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_explore_posts_user_created ON explore_posts (user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_explore_likes_user ON explore_likes (user_id);
+CREATE INDEX IF NOT EXISTS idx_explore_reactions_user ON explore_reactions (user_id);
+CREATE INDEX IF NOT EXISTS idx_explore_comments_post_created ON explore_comments (post_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_explore_comments_user ON explore_comments (user_id);
+
+-- Follows are read from both sides; the unique key above covers the follower side.
+CREATE INDEX IF NOT EXISTS idx_explore_follows_following ON explore_follows (following_id, follower_id);
+
+-- Conversations are looked up in both directions, each a prefix of this index.
+CREATE INDEX IF NOT EXISTS idx_explore_messages_pair_created ON explore_messages (from_user_id, to_user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_explore_messages_to ON explore_messages (to_user_id);
+
+CREATE INDEX IF NOT EXISTS idx_explore_threads_user_last ON explore_threads (user_id, last_at, id);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires ON idempotency_keys (expires_at);
+
+-- Catalog listings filter by type (and category) and sort by name.
+CREATE INDEX IF NOT EXISTS idx_food_items_type_name ON food_items (type, name);
+CREATE INDEX IF NOT EXISTS idx_food_items_type_category_name ON food_items (type, category, name);
+
+CREATE INDEX IF NOT EXISTS idx_device_connections_user ON device_connections (user_id);
@@ -0,0 +1,13 @@
+-- Content-addressed store for model-generated insights, keyed by the SHA-256 of model,
+-- instructions and prompt.
+
+CREATE TABLE IF NOT EXISTS ai_insights (
+    fingerprint VARCHAR(64) NOT NULL PRIMARY KEY,
+    model VARCHAR(100) NOT NULL,
+    title VARCHAR(255),
+    message VARCHAR(4000),
+    bullets VARCHAR(4000),
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ai_insights_created ON ai_insights (created_at);
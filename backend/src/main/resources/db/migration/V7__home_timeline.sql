@@ -0,0 +1,13 @@
+-- Precomputed "following" feed: one row per (reader, post) written when the post is created.
+-- author_id is denormalised so unfollows and user deletion can trim without a join.
+
+CREATE TABLE IF NOT EXISTS home_timeline (
+    user_id BIGINT NOT NULL,
+    post_id BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id, post_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_home_timeline_user_created ON home_timeline (user_id, created_at, post_id);
+CREATE INDEX IF NOT EXISTS idx_home_timeline_author_user ON home_timeline (author_id, user_id);
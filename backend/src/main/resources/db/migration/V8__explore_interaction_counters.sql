@@ -0,0 +1,24 @@
+-- Denormalised interaction counts, kept in step with explore_likes and explore_reactions by the
+-- toggle endpoints so feeds can show totals without counting rows per post.
+
+CREATE TABLE IF NOT EXISTS explore_post_counters (
+    post_id BIGINT PRIMARY KEY,
+    likes BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS explore_reaction_counts (
+    post_id BIGINT NOT NULL,
+    emoji VARCHAR(255) NOT NULL,
+    reactions BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (post_id, emoji)
+);
+
+INSERT INTO explore_post_counters (post_id, likes)
+SELECT p.id, (SELECT COUNT(*) FROM explore_likes l WHERE l.post_id = p.id)
+FROM explore_posts p;
+
+INSERT INTO explore_reaction_counts (post_id, emoji, reactions)
+SELECT post_id, emoji, COUNT(*)
+FROM explore_reactions
+WHERE emoji IS NOT NULL
+GROUP BY post_id, emoji;
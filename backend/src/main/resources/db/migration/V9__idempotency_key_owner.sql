@@ -0,0 +1,8 @@
+-- Idempotency keys are scoped to the user making the request, and the request body's hash is kept
+-- so a key replayed with a different body can be rejected instead of answered with another response.
+
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS user_id BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64);
+
+DROP INDEX IF EXISTS uk_idempotency_keys_scope_key;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_idempotency_keys_scope_user_key ON idempotency_keys (scope, user_id, idempotency_key);
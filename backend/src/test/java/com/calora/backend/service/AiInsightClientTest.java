@@ -0,0 +1,166 @@
+package com.calora.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs {@link AiInsightClient} against a local stub of the responses endpoint to check the
+ * deadline, the bulkhead and the circuit breaker.
+ */
+class AiInsightClientTest {
+
+    private static final String OK_BODY = """
+        {"output":[{"content":[{"type":"output_text","text":"Drink more water."}]}]}
+    """;
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private volatile Behavior behavior = Behavior.OK;
+
+    private enum Behavior { OK, ERROR, STALL_HEADERS, STALL_BODY }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/responses", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        stalled.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void deadlineCancelsTheExchangeAndReturnsThePermit() throws Exception {
+        behavior = Behavior.STALL_BODY;
+        AiInsightClient client = client(300, 1, 5, 30_000);
+
+        assertThatThrownBy(() -> client.fetchOutputText("model", "instructions", "prompt").get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+
+        // The headers arrived, so only the deadline stopped the call; the permit must be back.
+        assertThat(client.stats().availablePermits()).isEqualTo(1);
+        assertThat(client.stats().failures()).isEqualTo(1);
+    }
+
+    @Test
+    void callsBeyondTheBulkheadAreRejected() throws Exception {
+        behavior = Behavior.STALL_HEADERS;
+        AiInsightClient client = client(5_000, 1, 5, 30_000);
+
+        CompletableFuture<String> first = client.fetchOutputText("model", "instructions", "prompt");
+        CompletableFuture<String> second = client.fetchOutputText("model", "instructions", "prompt");
+
+        assertThatThrownBy(() -> second.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(AiInsightClient.UnavailableException.class)
+                .hasMessageContaining("too many concurrent calls");
+        assertThat(client.stats().rejected()).isEqualTo(1);
+        assertThat(client.stats().availablePermits()).isZero();
+
+        behavior = Behavior.OK;
+        stalled.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("Drink more water.");
+        assertThat(client.stats().availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndClosesAfterASuccessfulProbe() throws Exception {
+        behavior = Behavior.ERROR;
+        AiInsightClient client = client(5_000, 4, 2, 300);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> client.fetchOutputText("model", "instructions", "prompt").get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(AiInsightClient.UnavailableException.class)
+                    .hasMessageContaining("upstream returned 500");
+        }
+        assertThat(client.stats().circuitState()).isEqualTo("OPEN");
+
+        assertThatThrownBy(() -> client.fetchOutputText("model", "instructions", "prompt").get(1, TimeUnit.SECONDS))
+                .hasMessageContaining("circuit open");
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(client.stats().shortCircuited()).isEqualTo(1);
+
+        Thread.sleep(400);
+        assertThat(client.stats().circuitState()).isEqualTo("HALF_OPEN");
+
+        // A failed probe re-opens the circuit for another full period.
+        assertThatThrownBy(() -> client.fetchOutputText("model", "instructions", "prompt").get(5, TimeUnit.SECONDS))
+                .hasMessageContaining("upstream returned 500");
+        assertThat(client.stats().circuitState()).isEqualTo("OPEN");
+
+        Thread.sleep(400);
+        behavior = Behavior.OK;
+        assertThat(client.fetchOutputText("model", "instructions", "prompt").get(5, TimeUnit.SECONDS))
+                .isEqualTo("Drink more water.");
+        assertThat(client.stats().circuitState()).isEqualTo("CLOSED");
+        assertThat(requests.get()).isEqualTo(4);
+    }
+
+    private AiInsightClient client(long requestTimeoutMs, int maxConcurrentCalls, int failureThreshold, long openMs) {
+        String baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v1";
+        AiInsightClient client = new AiInsightClient(baseUrl, "test-key", 1_000, requestTimeoutMs, 250,
+                maxConcurrentCalls, failureThreshold, openMs);
+        ReflectionTestUtils.setField(client, "objectMapper", new ObjectMapper());
+        return client;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            switch (behavior) {
+                case ERROR -> exchange.sendResponseHeaders(500, -1);
+                case STALL_HEADERS -> {
+                    awaitRelease();
+                    respond(exchange, OK_BODY);
+                }
+                case STALL_BODY -> {
+                    exchange.sendResponseHeaders(200, 0);
+                    exchange.getResponseBody().flush();
+                    awaitRelease();
+                }
+                default -> respond(exchange, OK_BODY);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            stalled.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.Activity;
+import com.calora.backend.model.Meal;
+import com.calora.backend.model.User;
+import com.calora.backend.repository.ActivityRepository;
+import com.calora.backend.repository.DailyRollupRepository;
+import com.calora.backend.repository.MealRepository;
+import com.calora.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives every write path of the rollups against a fresh in-memory database and checks that the
+ * rows always equal a group by over the meals and activities they summarize.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:rollups;DB_CLOSE_DELAY=-1")
+class DailyRollupServiceTest {
+
+    private static final int THREADS = 8;
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 14, 8, 0);
+
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private JournalBatchWriter journalBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        String tag = UUID.randomUUID().toString();
+        user = userRepository.save(new User(tag + "@example.com", "Rollup user", "secret"));
+    }
+
+    @Test
+    void concurrentFirstWritesForTheSameDayAreAllCounted() throws Exception {
+        runConcurrently(i -> {
+            if (i % 2 == 0) {
+                logMeal(new Meal("Meal " + i, 400 + i, 20, 50, 10, DAY.plusMinutes(i), user));
+            } else {
+                logActivity(new Activity("Run", 30, 250 + i, DAY.plusMinutes(i), user));
+            }
+        });
+
+        assertThat(rollupRows()).hasSize(1).isEqualTo(groupBy());
+    }
+
+    @Test
+    void deletesTakeTheirTotalsBackOut() {
+        Meal breakfast = logMeal(new Meal("Oats", 350, 12, 60, 6, DAY, user));
+        logMeal(new Meal("Salad", 420, 18, 30, 22, DAY.plusHours(5), user));
+        Activity walk = logActivity(new Activity("Walk", 40, 180, DAY.plusHours(2), user));
+        logActivity(new Activity("Swim", 30, 300, DAY.plusDays(1), user));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            mealRepository.delete(breakfast);
+            dailyRollupService.removeMeal(breakfast);
+            activityRepository.delete(walk);
+            dailyRollupService.removeActivity(walk);
+        });
+
+        assertThat(rollupRows()).hasSize(2).isEqualTo(groupBy());
+    }
+
+    @Test
+    void batchInsertsAreRolledUpPerDay() {
+        List<Meal> meals = new ArrayList<>();
+        List<Activity> activities = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            meals.add(new Meal("Meal " + i, 300 + i, 15, 40, 9, DAY.plusDays(i % 3).plusHours(i), user));
+            activities.add(new Activity("Bike", 45, 200 + i, DAY.plusDays(i % 4), user));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            journalBatchWriter.insertMeals(meals);
+            dailyRollupService.recordMeals(meals);
+            journalBatchWriter.insertActivities(activities);
+            dailyRollupService.recordActivities(activities);
+        });
+
+        assertThat(rollupRows()).hasSize(4).isEqualTo(groupBy());
+    }
+
+    @Test
+    void backfillRebuildsTheSameRowsAsIncrementalUpdates() {
+        logMeal(new Meal("Eggs", 210, 14, 2, 15, DAY, user));
+        logMeal(new Meal("Pasta", 640, 22, 90, 18, DAY.plusDays(1), user));
+        logActivity(new Activity("Row", 20, 160, DAY.plusDays(2), user));
+        Map<LocalDate, List<Long>> incremental = rollupRows();
+
+        dailyRollupRepository.deleteAll();
+        dailyRollupService.backfillIfEmpty();
+
+        assertThat(rollupRows()).isEqualTo(incremental).isEqualTo(groupBy());
+    }
+
+    private Meal logMeal(Meal meal) {
+        return transactionTemplate.execute(status -> {
+            Meal saved = mealRepository.save(meal);
+            dailyRollupService.recordMeal(saved);
+            return saved;
+        });
+    }
+
+    private Activity logActivity(Activity activity) {
+        return transactionTemplate.execute(status -> {
+            Activity saved = activityRepository.save(activity);
+            dailyRollupService.recordActivity(saved);
+            return saved;
+        });
+    }
+
+    /** Rollup rows of the test user by day, as calories, protein, carbs, fats, burned, meals, activities. */
+    private Map<LocalDate, List<Long>> rollupRows() {
+        Map<LocalDate, List<Long>> rows = new TreeMap<>();
+        jdbcTemplate.query("""
+                select date, calories_consumed, protein_consumed, carbs_consumed, fats_consumed,
+                       calories_burned, meal_count, activity_count
+                from daily_rollups where user_id = ?
+                """, rs -> {
+            List<Long> values = new ArrayList<>();
+            for (int column = 2; column <= 8; column++) {
+                values.add(rs.getLong(column));
+            }
+            // Days whose last entry was deleted keep an all-zero row, which the group by cannot produce.
+            if (values.stream().anyMatch(value -> value != 0)) {
+                rows.put(rs.getDate(1).toLocalDate(), values);
+            }
+        }, user.getId());
+        return rows;
+    }
+
+    /** The same shape as {@link #rollupRows()}, computed from the raw tables. */
+    private Map<LocalDate, List<Long>> groupBy() {
+        Map<LocalDate, List<Long>> rows = new TreeMap<>();
+        jdbcTemplate.query("""
+                select cast(date as date), sum(coalesce(calories, 0)), sum(coalesce(protein, 0)),
+                       sum(coalesce(carbs, 0)), sum(coalesce(fats, 0)), count(*)
+                from meals where user_id = ? group by cast(date as date)
+                """, rs -> {
+            List<Long> values = row(rows, rs.getDate(1).toLocalDate());
+            for (int column = 2; column <= 5; column++) {
+                values.set(column - 2, rs.getLong(column));
+            }
+            values.set(5, rs.getLong(6));
+        }, user.getId());
+        jdbcTemplate.query("""
+                select cast(date as date), sum(coalesce(calories_burned, 0)), count(*)
+                from activities where user_id = ? group by cast(date as date)
+                """, rs -> {
+            List<Long> values = row(rows, rs.getDate(1).toLocalDate());
+            values.set(4, rs.getLong(2));
+            values.set(6, rs.getLong(3));
+        }, user.getId());
+        return rows;
+    }
+
+    private List<Long> row(Map<LocalDate, List<Long>> rows, LocalDate date) {
+        return rows.computeIfAbsent(date, d -> new ArrayList<>(Collections.nCopies(7, 0L)));
+    }
+
+    /** Runs {@code task} for 0..THREADS-1 on {@link #THREADS} threads released together. */
+    private void runConcurrently(IntTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        void run(int index);
+    }
+}
@@ -0,0 +1,144 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.ExplorePost;
+import com.calora.backend.model.User;
+import com.calora.backend.repository.ExplorePostRepository;
+import com.calora.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent like and reaction toggles against a fresh in-memory database: whatever interleaving
+ * the threads get, the counters must end up equal to the rows they count.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:interactions;DB_CLOSE_DELAY=-1")
+class ExploreInteractionServiceTest {
+
+    private static final int THREADS = 8;
+    private static final List<String> EMOJIS = List.of("fire", "muscle", "salad");
+
+    @Autowired
+    private ExploreInteractionService interactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExplorePostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long postId;
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void createPost() {
+        userIds.clear();
+        for (int i = 0; i < THREADS; i++) {
+            String tag = UUID.randomUUID().toString();
+            userIds.add(userRepository.save(new User(tag + "@example.com", "User " + i, "secret")).getId());
+        }
+        ExplorePost post = new ExplorePost();
+        post.setUser(userRepository.findById(userIds.get(0)).orElseThrow());
+        post.setCreatedAt(LocalDateTime.now());
+        postId = postRepository.save(post).getId();
+    }
+
+    @Test
+    void concurrentFirstLikesAreAllCounted() throws Exception {
+        AtomicInteger liked = new AtomicInteger();
+        runConcurrently(THREADS, i -> {
+            if (interactionService.toggleLike(postId, userIds.get(i))) {
+                liked.incrementAndGet();
+            }
+        });
+
+        assertThat(liked.get()).isPositive();
+        assertThat(likeRows()).isEqualTo(liked.get());
+        assertThat(likeCounter()).isEqualTo(liked.get());
+    }
+
+    @Test
+    void repeatedTogglesOfTheSamePairKeepTheCounterExact() throws Exception {
+        Long userId = userIds.get(1);
+        runConcurrently(THREADS * 4, i -> interactionService.toggleLike(postId, userId));
+
+        assertThat(likeRows()).isBetween(0L, 1L);
+        assertThat(likeCounter()).isEqualTo(likeRows());
+    }
+
+    @Test
+    void concurrentReactionSwitchesKeepPerEmojiCountsExact() throws Exception {
+        runConcurrently(THREADS * 6, i -> interactionService.toggleReaction(postId,
+                userIds.get(i % THREADS), EMOJIS.get(i % EMOJIS.size())));
+
+        Map<String, Long> rows = new HashMap<>();
+        jdbcTemplate.query("select emoji, count(*) from explore_reactions where post_id = ? group by emoji",
+                rs -> { rows.put(rs.getString(1), rs.getLong(2)); }, postId);
+        Map<String, Long> counters = new HashMap<>();
+        jdbcTemplate.query("select emoji, reactions from explore_reaction_counts where post_id = ? and reactions <> 0",
+                rs -> { counters.put(rs.getString(1), rs.getLong(2)); }, postId);
+
+        assertThat(counters).isEqualTo(rows);
+        assertThat(rows.values().stream().mapToLong(Long::longValue).sum()).isLessThanOrEqualTo(THREADS);
+    }
+
+    private long likeRows() {
+        return jdbcTemplate.queryForObject("select count(*) from explore_likes where post_id = ?", Long.class, postId);
+    }
+
+    private long likeCounter() {
+        List<Long> likes = jdbcTemplate.queryForList(
+                "select likes from explore_post_counters where post_id = ?", Long.class, postId);
+        return likes.isEmpty() ? 0 : likes.get(0);
+    }
+
+    /**
+     * Runs {@code task} for 0..count-1 on {@link #THREADS} threads released together. A toggle that
+     * still conflicts after its retries is an accepted outcome (the endpoint answers 409); anything
+     * else fails the test.
+     */
+    private void runConcurrently(int count, IntTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        task.run(index);
+                    } catch (ConcurrencyFailureException ignored) {
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        void run(int index);
+    }
+}
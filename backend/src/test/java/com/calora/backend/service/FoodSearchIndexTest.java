@@ -0,0 +1,59 @@
+package com.calora.backend.service;
+
+import com.calora.backend.model.FoodItem;
+import com.calora.backend.model.FoodItemType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Type and category facets over a catalog where the searched type is a small minority. */
+class FoodSearchIndexTest {
+
+    private static final int FOODS = 10_000;
+    private static final int RECIPES = 5;
+
+    private final FoodSearchIndex index = new FoodSearchIndex();
+
+    @BeforeEach
+    void fillCatalog() {
+        List<FoodItem> items = new ArrayList<>();
+        for (int i = 0; i < FOODS; i++) {
+            items.add(item(i + 1L, "Chicken curry bowl " + i, "Bowls", FoodItemType.FOOD));
+        }
+        for (int i = 0; i < RECIPES; i++) {
+            items.add(item(FOODS + i + 1L, "Chicken curry", i == 0 ? "Indian" : "Classics", FoodItemType.FAMOUS_RECIPE));
+        }
+        index.upsert(items);
+    }
+
+    @Test
+    void recipeSearchFindsEveryRecipeAmongManyFoods() {
+        List<FoodItem> hits = index.search(FoodItemType.FAMOUS_RECIPE, null, "chicken", 20);
+
+        assertThat(hits).hasSize(RECIPES).allMatch(item -> item.getType() == FoodItemType.FAMOUS_RECIPE);
+    }
+
+    @Test
+    void fuzzyRecipeSearchFindsEveryRecipeAmongManyFoods() {
+        List<FoodItem> hits = index.search(FoodItemType.FAMOUS_RECIPE, null, "chickn curri", 20);
+
+        assertThat(hits).hasSize(RECIPES).allMatch(item -> item.getType() == FoodItemType.FAMOUS_RECIPE);
+    }
+
+    @Test
+    void categoryNarrowsTheRecipes() {
+        List<FoodItem> hits = index.search(FoodItemType.FAMOUS_RECIPE, "Indian", "curry", 20);
+
+        assertThat(hits).extracting(FoodItem::getCategory).containsExactly("Indian");
+    }
+
+    private static FoodItem item(long id, String name, String category, FoodItemType type) {
+        FoodItem item = new FoodItem(name, 500, 30.0, 40.0, 15.0, category, "1 serving", type);
+        item.setId(id);
+        return item;
+    }
+}
@@ -0,0 +1,150 @@
+package com.calora.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays, conflicts and expiry of stored responses against a fresh in-memory database. Each test
+ * uses its own key so the cache shared by the context does not leak between tests.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1")
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "meals.create";
+    private static final Map<String, Object> REQUEST = Map.of("name", "Oats", "calories", 350);
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void retryReplaysTheStoredResponseWithoutRunningTheActionAgain() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        ResponseEntity<?> first = idempotencyService.execute(SCOPE, 1L, REQUEST, key, this::created);
+        ResponseEntity<?> retry = idempotencyService.execute(SCOPE, 1L, REQUEST, key, this::created);
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getStatusCode().value()).isEqualTo(201);
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getBody()).isEqualTo(objectMapper.writeValueAsString(first.getBody()));
+        assertThat(storedRows(key)).isEqualTo(1);
+    }
+
+    @Test
+    void sameKeyWithADifferentBodyIsRejected() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute(SCOPE, 1L, REQUEST, key, this::created);
+
+        ResponseEntity<?> reused = idempotencyService.execute(SCOPE, 1L, Map.of("name", "Rice"), key, this::created);
+
+        assertThat(reused.getStatusCode().value()).isEqualTo(422);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void retryWhileTheFirstRequestIsRunningGetsAConflict() {
+        String key = UUID.randomUUID().toString();
+        AtomicReference<ResponseEntity<?>> retry = new AtomicReference<>();
+
+        idempotencyService.execute(SCOPE, 1L, REQUEST, key, () -> {
+            retry.set(idempotencyService.execute(SCOPE, 1L, REQUEST, key, this::created));
+            return created();
+        });
+
+        assertThat(retry.get().getStatusCode().value()).isEqualTo(409);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void keysAreScopedToTheUser() {
+        String key = UUID.randomUUID().toString();
+
+        idempotencyService.execute(SCOPE, 1L, REQUEST, key, this::created);
+        ResponseEntity<?> otherUser = idempotencyService.execute(SCOPE, 2L, REQUEST, key, this::created);
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(otherUser.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(storedRows(key)).isEqualTo(2);
+    }
+
+    @Test
+    void expiredRecordIsOverwrittenAndTheActionRunsAgain() {
+        String key = UUID.randomUUID().toString();
+        LocalDateTime past = LocalDateTime.now().minusDays(2);
+        jdbcTemplate.update("""
+                insert into idempotency_keys
+                    (scope, user_id, idempotency_key, request_hash, status_code, response_body, created_at, expires_at)
+                values (?, 1, ?, 'stale', 201, '{"id":-1}', ?, ?)
+                """, SCOPE, key, Timestamp.valueOf(past), Timestamp.valueOf(past.plusDays(1)));
+
+        ResponseEntity<?> response = idempotencyService.execute(SCOPE, 1L, REQUEST, key, this::created);
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(storedRows(key)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "select expires_at from idempotency_keys where idempotency_key = ?", Timestamp.class, key)
+                .toLocalDateTime()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void requestThatLosesTheInsertAnswersWithTheCommittedResponse() {
+        String key = UUID.randomUUID().toString();
+
+        // Another instance stores the same key while this request's action runs.
+        ResponseEntity<?> response = idempotencyService.execute(SCOPE, 1L, REQUEST, key, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.update("""
+                    insert into idempotency_keys
+                        (scope, user_id, idempotency_key, request_hash, status_code, response_body, created_at, expires_at)
+                    values (?, 1, ?, ?, 201, '{"id":42}', ?, ?)
+                    """, SCOPE, key, storedHash(), Timestamp.valueOf(now), Timestamp.valueOf(now.plusDays(1)));
+            return created();
+        });
+
+        assertThat(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(response.getBody()).isEqualTo("{\"id\":42}");
+        assertThat(storedRows(key)).isEqualTo(1);
+    }
+
+    /** The hash the service stores for {@link #REQUEST}, taken from a record it wrote itself. */
+    private String storedHash() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute(SCOPE, 3L, REQUEST, key, this::created);
+        return jdbcTemplate.queryForObject(
+                "select request_hash from idempotency_keys where idempotency_key = ?", String.class, key);
+    }
+
+    private ResponseEntity<?> created() {
+        return ResponseEntity.status(201).body(Map.of("id", calls.incrementAndGet()));
+    }
+
+    private long storedRows(String key) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from idempotency_keys where idempotency_key = ?", Long.class, key);
+    }
+}
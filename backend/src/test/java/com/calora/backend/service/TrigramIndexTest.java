@@ -0,0 +1,86 @@
+package com.calora.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private static final long EXACT = 1;
+    private static final long FIELD_PREFIX = 2;
+    private static final long TOKEN_PREFIX = 3;
+    private static final long SUBSTRING = 4;
+    private static final long FUZZY = 5;
+
+    @Test
+    void ranksExactThenFieldPrefixThenTokenPrefixThenSubstringThenFuzzy() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(FUZZY, "Chiken");
+        index.put(SUBSTRING, "Stirfrychicken");
+        index.put(TOKEN_PREFIX, "Grilled Chicken");
+        index.put(FIELD_PREFIX, "Chicken Breast");
+        index.put(EXACT, "Chicken");
+
+        assertThat(ids(index.search("chicken", 10, id -> true)))
+                .containsExactly(EXACT, FIELD_PREFIX, TOKEN_PREFIX, SUBSTRING, FUZZY);
+    }
+
+    @Test
+    void exactMatchIsFoundAmongManyDocumentsSharingTheToken() {
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 100; id < 400; id++) {
+            index.put(id, "Grilled chicken variant " + id);
+        }
+        index.put(EXACT, "Chicken");
+        index.put(FIELD_PREFIX, "Chicken Breast");
+
+        List<Long> hits = ids(index.search("chicken", 20, id -> true));
+
+        assertThat(hits).hasSize(20);
+        assertThat(hits.subList(0, 2)).containsExactly(EXACT, FIELD_PREFIX);
+    }
+
+    @Test
+    void matchesAccentAndCaseInsensitively() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(EXACT, "Crème Brûlée");
+
+        assertThat(ids(index.search("CREME brulee", 5, id -> true))).containsExactly(EXACT);
+    }
+
+    @Test
+    void filterExcludesDocumentsWithoutCrowdingOutOthers() {
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 100; id < 10_100; id++) {
+            index.put(id, "Chicken curry bowl " + id);
+        }
+        index.put(EXACT, "Chicken curry");
+        index.put(FIELD_PREFIX, "Chicken curry");
+
+        assertThat(ids(index.search("chicken", 20, id -> id < 100)))
+                .containsExactlyInAnyOrder(EXACT, FIELD_PREFIX);
+        // No token starts with "curri", so these come from the trigram stage.
+        assertThat(ids(index.search("chickn curri", 20, id -> id < 100)))
+                .containsExactlyInAnyOrder(EXACT, FIELD_PREFIX);
+    }
+
+    @Test
+    void removedAndReplacedDocumentsAreNoLongerMatchedByTheirOldText() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(EXACT, "Chicken");
+        index.put(FIELD_PREFIX, "Chicken Breast");
+
+        index.remove(EXACT);
+        index.put(FIELD_PREFIX, "Salmon Fillet");
+
+        assertThat(index.search("chicken", 10, id -> true)).isEmpty();
+        assertThat(ids(index.search("salmon", 10, id -> true))).containsExactly(FIELD_PREFIX);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static List<Long> ids(List<TrigramIndex.Hit> hits) {
+        return hits.stream().map(TrigramIndex.Hit::id).toList();
+    }
+}